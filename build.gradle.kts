@@ -48,13 +48,35 @@ sonar {
     }
 }
 
+// JMH-бенчмарки: src/jmh/java, запуск ./gradlew jmh [-Pjmh.include=<regexp>] или ./gradlew jmh --args='<опции JMH>'
+// Результаты пишутся в build/reports/jmh/results.json (другой путь внутри build - -Pjmh.results=<путь>)
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.flywaydb:flyway-core")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    // @Timed на сервисах (TimedAspect) и экспорт метрик в формате Prometheus
+    implementation("org.springframework.boot:spring-boot-starter-aop")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("com.github.ben-manes.caffeine:jcache")
+    runtimeOnly("org.flywaydb:flyway-database-postgresql")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
+    // Argon2 и SCrypt в DelegatingPasswordEncoder
+    implementation("org.bouncycastle:bcprov-jdk18on:1.80")
     implementation("org.springframework.boot:spring-boot-starter-thymeleaf")
     implementation("org.thymeleaf.extras:thymeleaf-extras-springsecurity6")
     testImplementation("org.springframework.security:spring-security-test")
@@ -88,6 +110,38 @@ dependencies {
     testAnnotationProcessor("org.projectlombok:lombok")
 
     developmentOnly("org.springframework.boot:spring-boot-devtools")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    "jmhImplementation"("org.springframework:spring-test")
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs JMH benchmarks from the jmh source set"
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    args(providers.gradleProperty("jmh.include").getOrElse(".*"))
+    // Результаты в JSON для сравнения между релизами; провайдер аргументов не затирается --args
+    val results = layout.buildDirectory.file(providers.gradleProperty("jmh.results").orElse("reports/jmh/results.json"))
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf("-rf", "json", "-rff", results.get().asFile.absolutePath)
+    })
+    doFirst {
+        results.get().asFile.parentFile.mkdirs()
+    }
+}
+
+// Нагрузочный прогон REST-эндпоинтов на сгенерированном датасете: ./gradlew loadTest --args='<опции>' (docs/load-testing.md)
+// -PtracePinned печатает стеки виртуальных потоков, заблокированных с закреплением за платформенным
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Runs the posts load test against an embedded server"
+    classpath = jmh.runtimeClasspath
+    mainClass = "io.hexletspringblog.load.PostsLoadTest"
+    if (providers.gradleProperty("tracePinned").isPresent) {
+        jvmArgs("-Djdk.tracePinnedThreads=short")
+    }
 }
 
 tasks.jacocoTestReport {
@@ -109,7 +163,7 @@ tasks.jacocoTestCoverageVerification {
 }
 
 tasks.check {
-    dependsOn(tasks.jacocoTestReport, tasks.jacocoTestCoverageVerification)
+    dependsOn(tasks.jacocoTestReport, tasks.jacocoTestCoverageVerification, tasks.named(jmh.classesTaskName))
 }
 
 tasks.withType<Test> {
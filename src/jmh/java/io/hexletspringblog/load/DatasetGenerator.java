@@ -0,0 +1,316 @@
+package io.hexletspringblog.load;
+
+import net.datafaker.Faker;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Воспроизводимый датасет для нагрузочных прогонов: пользователи, теги, посты с тегами и комментарии.
+// Строки пишутся JDBC-батчами в обход Hibernate, пачка коммитится целиком, поэтому объем ограничен
+// только базой, а не памятью. id идут подряд после текущего максимума, последовательности
+// сдвигаются за вставленные строки - после генерации приложение создает записи как обычно.
+// Тексты берутся из Faker (бин приложения, app.faker.seed), структура - из Random с тем же seed:
+// при одинаковых seed и объемах получается один и тот же датасет.
+public final class DatasetGenerator {
+
+    // Пароль всех сгенерированных пользователей
+    public static final String PASSWORD = "password";
+    public static final String EMAIL_DOMAIN = "load.test";
+
+    private static final int CHUNK_SIZE = 1000;
+    // Faker медленный для миллионов строк: тексты набираются заранее и комбинируются
+    private static final int TEXT_POOL_SIZE = 4096;
+    private static final int SAMPLE_SIZE = 10_000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    public record Counts(int users, int tags, int posts, int comments, int maxTagsPerPost) {
+    }
+
+    public record UserRef(long id, String email) {
+    }
+
+    public record PostRef(long id, String slug) {
+    }
+
+    // Выборка сгенерированных строк для подстановки в запросы
+    public record Dataset(List<UserRef> users, List<PostRef> posts, List<Long> tagIds) {
+    }
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final Random random;
+    private final List<String> titles = new ArrayList<>(TEXT_POOL_SIZE);
+    private final List<String> sentences = new ArrayList<>(TEXT_POOL_SIZE);
+    private final List<String> firstNames = new ArrayList<>(TEXT_POOL_SIZE);
+    private final List<String> lastNames = new ArrayList<>(TEXT_POOL_SIZE);
+    private final List<String> words = new ArrayList<>(TEXT_POOL_SIZE);
+
+    public DatasetGenerator(DataSource dataSource, Faker faker, PasswordEncoder passwordEncoder, long seed) {
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.random = new Random(seed);
+        for (int i = 0; i < TEXT_POOL_SIZE; i++) {
+            titles.add(truncate(faker.book().title(), 80));
+            sentences.add(truncate(faker.lorem().sentence(12), 120));
+            firstNames.add(truncate(faker.name().firstName(), 30));
+            lastNames.add(truncate(faker.name().lastName(), 30));
+            words.add(faker.lorem().word());
+        }
+    }
+
+    public Dataset generate(Counts counts) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            List<UserRef> users = new ArrayList<>();
+            long firstUserId = insertUsers(connection, counts.users(), users);
+            long firstTagId = insertTags(connection, counts.tags());
+            List<PostRef> posts = new ArrayList<>();
+            long firstPostId = insertPosts(connection, counts, firstUserId, firstTagId, posts);
+            insertComments(connection, counts.comments(), firstPostId, counts.posts());
+
+            List<Long> tagIds = new ArrayList<>();
+            for (int i = 0; i < counts.tags(); i += sampleStep(counts.tags())) {
+                tagIds.add(firstTagId + i);
+            }
+            return new Dataset(users, posts, tagIds);
+        }
+    }
+
+    private long insertUsers(Connection connection, int count, List<UserRef> sample) throws SQLException {
+        long started = System.nanoTime();
+        long firstId = nextId(connection, "users");
+        // Один хэш на всех: bcrypt на миллион строк занял бы часы, а вход проверяет любой корректный хэш
+        String digest = passwordEncoder.encode(PASSWORD);
+        int step = sampleStep(count);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users (id, first_name, last_name,"
+                + " email, birthday, created_at, updated_at, password_digest) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                String firstName = pick(firstNames);
+                String lastName = pick(lastNames);
+                String email = (firstName + "." + lastName).toLowerCase(Locale.ROOT).replaceAll("[^a-z.]", "")
+                        + "." + id + "@" + EMAIL_DOMAIN;
+                LocalDateTime createdAt = timestamp();
+                insert.setLong(1, id);
+                insert.setString(2, firstName);
+                insert.setString(3, lastName);
+                insert.setString(4, email);
+                insert.setObject(5, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20_000)));
+                insert.setObject(6, createdAt);
+                insert.setObject(7, createdAt);
+                insert.setString(8, digest);
+                insert.addBatch();
+                if (i % step == 0) {
+                    sample.add(new UserRef(id, email));
+                }
+                flushIfFull(connection, i + 1, insert);
+            }
+            flush(connection, insert);
+        }
+        restartSequence(connection, "users", firstId + count);
+        report("users", count, started);
+        return firstId;
+    }
+
+    private long insertTags(Connection connection, int count) throws SQLException {
+        long started = System.nanoTime();
+        long firstId = nextId(connection, "tags");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO tags (id, name, post_count) VALUES (?, ?, 0)")) {
+            for (int i = 0; i < count; i++) {
+                insert.setLong(1, firstId + i);
+                insert.setString(2, truncate(pick(words) + "-" + (firstId + i), 100));
+                insert.addBatch();
+                flushIfFull(connection, i + 1, insert);
+            }
+            flush(connection, insert);
+        }
+        restartSequence(connection, "tags", firstId + count);
+        report("tags", count, started);
+        return firstId;
+    }
+
+    // Посты и их теги одной пачкой: post_tag ссылается на посты, поэтому посты пачки уходят первыми
+    private long insertPosts(Connection connection, Counts counts, long firstUserId, long firstTagId,
+                             List<PostRef> sample) throws SQLException {
+        long started = System.nanoTime();
+        long firstId = nextId(connection, "posts");
+        int[] tagUsage = new int[counts.tags()];
+        int maxTags = counts.tags() == 0 ? 0 : Math.min(counts.maxTagsPerPost(), counts.tags());
+        int[] postTags = new int[maxTags];
+        int step = sampleStep(counts.posts());
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO posts (id, user_id, slug, title,"
+                + " content, published, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement tag = connection.prepareStatement("INSERT INTO post_tag (post_id, tag_id) VALUES (?, ?)")) {
+            for (int i = 0; i < counts.posts(); i++) {
+                long id = firstId + i;
+                String title = pick(titles);
+                String slug = slugify(title) + "-" + id;
+                LocalDateTime createdAt = timestamp();
+                insert.setLong(1, id);
+                if (counts.users() == 0) {
+                    insert.setNull(2, Types.BIGINT);
+                } else {
+                    insert.setLong(2, firstUserId + random.nextInt(counts.users()));
+                }
+                insert.setString(3, slug);
+                insert.setString(4, title);
+                insert.setString(5, truncate(pick(sentences) + " " + pick(sentences), 255));
+                // Большая часть постов опубликована, как в живом блоге
+                insert.setBoolean(6, random.nextInt(10) < 8);
+                insert.setObject(7, createdAt);
+                insert.setObject(8, createdAt.plusHours(random.nextInt(72)));
+                insert.addBatch();
+                if (i % step == 0) {
+                    sample.add(new PostRef(id, slug));
+                }
+
+                int tagCount = maxTags == 0 ? 0 : random.nextInt(maxTags + 1);
+                int assigned = 0;
+                for (int t = 0; t < tagCount; t++) {
+                    int index = skewed(counts.tags());
+                    if (contains(postTags, assigned, index)) {
+                        continue;
+                    }
+                    postTags[assigned++] = index;
+                    tagUsage[index]++;
+                    tag.setLong(1, id);
+                    tag.setLong(2, firstTagId + index);
+                    tag.addBatch();
+                }
+                if ((i + 1) % CHUNK_SIZE == 0) {
+                    insert.executeBatch();
+                    flush(connection, tag);
+                }
+            }
+            insert.executeBatch();
+            flush(connection, tag);
+        }
+        updatePostCounts(connection, firstTagId, tagUsage);
+        restartSequence(connection, "posts", firstId + counts.posts());
+        report("posts", counts.posts(), started);
+        return firstId;
+    }
+
+    private void updatePostCounts(Connection connection, long firstTagId, int[] tagUsage) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE tags SET post_count = post_count + ? WHERE id = ?")) {
+            int pending = 0;
+            for (int i = 0; i < tagUsage.length; i++) {
+                if (tagUsage[i] == 0) {
+                    continue;
+                }
+                update.setInt(1, tagUsage[i]);
+                update.setLong(2, firstTagId + i);
+                update.addBatch();
+                flushIfFull(connection, ++pending, update);
+            }
+            flush(connection, update);
+        }
+    }
+
+    private void insertComments(Connection connection, int count, long firstPostId, int posts) throws SQLException {
+        if (posts == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        long firstId = nextId(connection, "comments");
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO comments (id, post_id, body, created_at) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < count; i++) {
+                insert.setLong(1, firstId + i);
+                // Обсуждения сосредоточены на части постов
+                insert.setLong(2, firstPostId + skewed(posts));
+                insert.setString(3, pick(sentences));
+                insert.setObject(4, timestamp().toLocalDate());
+                insert.addBatch();
+                flushIfFull(connection, i + 1, insert);
+            }
+            flush(connection, insert);
+        }
+        restartSequence(connection, "comments", firstId + count);
+        report("comments", count, started);
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Hibernate берет из последовательности начало блока (pooled-lo) - следующий блок начнется за вставленными id
+    private static void restartSequence(Connection connection, String table, long next) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + next);
+        }
+        connection.commit();
+    }
+
+    private static void flushIfFull(Connection connection, int rows, PreparedStatement statement) throws SQLException {
+        if (rows % CHUNK_SIZE == 0) {
+            flush(connection, statement);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+
+    private static void report(String table, int rows, long started) {
+        System.out.printf("generated %,d %s in %d ms%n", rows, table,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // Индекс со смещением к началу диапазона: немногие популярные теги и посты, длинный хвост
+    private int skewed(int bound) {
+        double r = random.nextDouble();
+        return (int) (bound * r * r);
+    }
+
+    private LocalDateTime timestamp() {
+        return EPOCH.plusMinutes(random.nextInt(2 * 365 * 24 * 60));
+    }
+
+    // В выборку попадает каждая step-я строка - не больше SAMPLE_SIZE на таблицу
+    private static int sampleStep(int rows) {
+        return Math.max(1, (rows + SAMPLE_SIZE - 1) / SAMPLE_SIZE);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String slugify(String title) {
+        String slug = title.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("(^-|-$)", "");
+        return truncate(slug.isEmpty() ? "post" : slug, 60);
+    }
+
+    private static String truncate(String value, int length) {
+        return value.length() <= length ? value : value.substring(0, length);
+    }
+}
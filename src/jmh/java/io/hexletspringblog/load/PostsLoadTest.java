@@ -0,0 +1,355 @@
+package io.hexletspringblog.load;
+
+import io.hexletspringblog.Application;
+import io.hexletspringblog.component.PostSlugIndex;
+import io.hexletspringblog.model.User;
+import io.hexletspringblog.search.PostSearchIndexListener;
+import io.hexletspringblog.util.JWTUtils;
+import net.datafaker.Faker;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Нагрузочный прогон REST-эндпоинтов на настоящем Tomcat: ./gradlew loadTest --args='--mode=virtual'
+// Приложение поднимается на H2 в памяти (или на базе из --jdbc-url) и заполняется DatasetGenerator;
+// медленная БД моделируется задержкой после выдачи соединения из пула (соединение при этом занято,
+// как во время запроса к удаленной БД).
+// Клиенты - concurrency потоков, каждый шлет запросы подряд по сценариям из --scenarios по кругу;
+// вес сценария (list:4) - сколько раз он повторяется в круге. Сценарии:
+//   list - GET /api/posts?page=N, detail - GET /api/posts/{id}, slug - GET /api/posts/by-slug/{slug},
+//   comments - GET /api/comments/post/{id}, create - POST /api/posts, login - POST /api/login.
+// --paths добавляет произвольные GET-пути, в них {id} и {slug} заменяются случайным постом датасета.
+// Опции: --mode=platform|virtual --concurrency=400 --warmup=10 --duration=30
+//        --scenarios=detail,slug --paths=/api/tags/popular
+//        --users=100 --tags=50 --posts=1000 --comments=5000 --max-tags-per-post=5 --seed=42
+//        --db=h2|h2-postgres --jdbc-url=... --jdbc-user=... --jdbc-password=...
+//        --db-latency-ms=20 --pool-size=20
+public final class PostsLoadTest {
+
+    private static final Map<String, Scenario> SCENARIOS = Map.of(
+            "list", (dataset, random, client) -> Request.get("/api/posts?page="
+                    + random.nextInt(Math.max(1, Math.min(50, dataset.posts().size() / 20))) + "&size=20"),
+            "detail", (dataset, random, client) -> Request.get("/api/posts/" + pick(dataset.posts(), random).id()),
+            "slug", (dataset, random, client) -> Request.get("/api/posts/by-slug/" + pick(dataset.posts(), random).slug()),
+            "comments", (dataset, random, client) -> Request.get("/api/comments/post/" + pick(dataset.posts(), random).id()),
+            "create", PostsLoadTest::createPost,
+            "login", (dataset, random, client) -> new Request("POST", "/api/login", """
+                    {"username": "%s", "password": "%s"}""".formatted(
+                    pick(dataset.users(), random).email(), DatasetGenerator.PASSWORD), false));
+
+    private PostsLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String mode = options.getOrDefault("mode", "platform");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        DatasetGenerator.Counts counts = new DatasetGenerator.Counts(
+                Integer.parseInt(options.getOrDefault("users", "100")),
+                Integer.parseInt(options.getOrDefault("tags", "50")),
+                Integer.parseInt(options.getOrDefault("posts", "1000")),
+                Integer.parseInt(options.getOrDefault("comments", "5000")),
+                Integer.parseInt(options.getOrDefault("max-tags-per-post", "5")));
+        long dbLatencyMs = Long.parseLong(options.getOrDefault("db-latency-ms", "20"));
+        int poolSize = Integer.parseInt(options.getOrDefault("pool-size", "20"));
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        List<String> cycle = plan(options.getOrDefault("scenarios", "detail,slug"), options.getOrDefault("paths", ""),
+                scenarios);
+
+        List<String> arguments = new ArrayList<>(List.of("--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--app.faker.seed=" + seed,
+                "--logging.level.root=warn"));
+        arguments.addAll(datasource(options));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(slowDataSource(dbLatencyMs)))
+                // Аргументами командной строки - они приоритетнее application.yml
+                .run(arguments.toArray(String[]::new))) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            DatasetGenerator.Dataset dataset = new DatasetGenerator(context.getBean(DataSource.class),
+                    context.getBean(Faker.class), context.getBean(PasswordEncoder.class), seed).generate(counts);
+            // Строки вставлены в обход сервисов - индексы в памяти перестраиваются, как при старте
+            context.getBean(PostSearchIndexListener.class).rebuild();
+            context.getBean(PostSlugIndex.class).rebuild();
+            DatasetGenerator.UserRef user = dataset.users().getFirst();
+            User principal = new User();
+            principal.setId(user.id());
+            principal.setEmail(user.email());
+            String token = context.getBean(JWTUtils.class).generateToken(principal);
+            Target target = new Target(port, token, dataset);
+
+            System.out.printf("mode=%s concurrency=%d users=%d tags=%d posts=%d comments=%d db-latency=%dms pool=%d cpus=%d%n",
+                    mode, concurrency, counts.users(), counts.tags(), counts.posts(), counts.comments(),
+                    dbLatencyMs, poolSize, Runtime.getRuntime().availableProcessors());
+            run(target, scenarios, cycle, concurrency, warmup);
+            Map<String, Recorder> results = run(target, scenarios, cycle, concurrency, duration);
+
+            System.out.println("| mode | scenario | requests/s | p50, ms | p90, ms | p99, ms | max, ms | errors |");
+            System.out.println("|---|---|---|---|---|---|---|---|");
+            results.forEach((name, recorder) -> System.out.println(recorder.row(mode, name, duration)));
+        }
+    }
+
+    // h2 - в памяти; h2-postgres - H2 в режиме совместимости с PostgreSQL вместо встроенного PostgreSQL;
+    // --jdbc-url - внешняя база (например, локальный PostgreSQL), датасет дописывается к ее данным
+    private static List<String> datasource(Map<String, String> options) {
+        String url = options.get("jdbc-url");
+        if (url == null) {
+            url = switch (options.getOrDefault("db", "h2")) {
+                case "h2" -> "jdbc:h2:mem:posts-load-test;DB_CLOSE_DELAY=-1";
+                case "h2-postgres" -> "jdbc:h2:mem:posts-load-test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+                default -> throw new IllegalArgumentException("Unknown --db: " + options.get("db"));
+            };
+        }
+        List<String> arguments = new ArrayList<>(List.of("--spring.datasource.url=" + url,
+                "--spring.datasource.driver-class-name="
+                        + (url.startsWith("jdbc:postgresql:") ? "org.postgresql.Driver" : "org.h2.Driver")));
+        if (options.containsKey("jdbc-user")) {
+            arguments.add("--spring.datasource.username=" + options.get("jdbc-user"));
+        }
+        if (options.containsKey("jdbc-password")) {
+            arguments.add("--spring.datasource.password=" + options.get("jdbc-password"));
+        }
+        return arguments;
+    }
+
+    // Заполняет сценарии и возвращает порядок запросов одного клиента:
+    // сценарий с весом n повторяется n раз подряд, пути из --paths - по одному разу
+    private static List<String> plan(String names, String paths, Map<String, Scenario> scenarios) {
+        List<String> cycle = new ArrayList<>();
+        for (String entry : names.split(",")) {
+            String[] pair = entry.trim().split(":", 2);
+            if (pair[0].isEmpty()) {
+                continue;
+            }
+            Scenario scenario = SCENARIOS.get(pair[0]);
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario: " + pair[0] + " (expected one of " + SCENARIOS.keySet() + ")");
+            }
+            scenarios.put(pair[0], scenario);
+            cycle.addAll(Collections.nCopies(pair.length > 1 ? Integer.parseInt(pair[1]) : 1, pair[0]));
+        }
+        for (String path : paths.split(",")) {
+            if (path.isBlank()) {
+                continue;
+            }
+            scenarios.put(path, (dataset, random, client) -> {
+                DatasetGenerator.PostRef post = pick(dataset.posts(), random);
+                return Request.get(path.replace("{id}", String.valueOf(post.id())).replace("{slug}", post.slug()));
+            });
+            cycle.add(path);
+        }
+        return cycle;
+    }
+
+    private static Request createPost(DatasetGenerator.Dataset dataset, ThreadLocalRandom random, int client) {
+        long tag = pick(dataset.tagIds(), random);
+        String body = """
+                {"authorId": %d, "slug": "load-%d-%d", "title": "Load test post", "content": "Created by the load test",
+                 "published": true, "tagIds": [%d]}""".formatted(
+                dataset.users().getFirst().id(), client, random.nextLong(Long.MAX_VALUE), tag);
+        return new Request("POST", "/api/posts", body, true);
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // Держит соединение из пула latencyMs перед отдачей - модель сетевой задержки до БД
+    private static BeanPostProcessor slowDataSource(long latencyMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || latencyMs <= 0) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        try {
+                            Thread.sleep(latencyMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return connection;
+                    }
+                };
+            }
+        };
+    }
+
+    private static Map<String, Recorder> run(Target target, Map<String, Scenario> scenarios, List<String> cycle,
+                                             int concurrency, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        // Клиенты на платформенных потоках: с виртуальными они делили бы планировщик с сервером в режиме virtual.
+        // У каждого клиента свои счетчики - без общей блокировки, сводятся после прогона
+        List<Future<Map<String, Recorder>>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService clients = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().daemon().factory())) {
+            for (int worker = 0; worker < concurrency; worker++) {
+                int client = worker;
+                workers.add(clients.submit(() -> {
+                    Map<String, Recorder> recorders = new LinkedHashMap<>();
+                    scenarios.keySet().forEach(name -> recorders.put(name, new Recorder()));
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int next = client;
+                    while (System.nanoTime() < deadline) {
+                        String name = cycle.get(next++ % cycle.size());
+                        Request request = scenarios.get(name).next(target.dataset(), random, client);
+                        long start = System.nanoTime();
+                        boolean ok = send(target, request);
+                        recorders.get(name).record(System.nanoTime() - start, ok);
+                    }
+                    return recorders;
+                }));
+            }
+        }
+
+        Map<String, Recorder> total = new LinkedHashMap<>();
+        scenarios.keySet().forEach(name -> total.put(name, new Recorder()));
+        for (Future<Map<String, Recorder>> worker : workers) {
+            try {
+                worker.get().forEach((name, recorder) -> total.get(name).add(recorder));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load test client failed", e.getCause());
+            }
+        }
+        return total;
+    }
+
+    // Блокирующий HttpURLConnection с keep-alive: у асинхронного HttpClient на малом числе ядер
+    // узким местом становится его собственный селектор
+    private static boolean send(Target target, Request request) {
+        try {
+            URL url = URI.create("http://localhost:" + target.port() + request.path()).toURL();
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(10_000);
+            connection.setReadTimeout(30_000);
+            connection.setRequestMethod(request.method());
+            if (request.authorized()) {
+                connection.setRequestProperty("Authorization", "Bearer " + target.token());
+            }
+            if (request.body() != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream body = connection.getOutputStream()) {
+                    body.write(request.body().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (body != null) {
+                    body.transferTo(OutputStream.nullOutputStream());
+                }
+            }
+            return status / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        return options;
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        Request next(DatasetGenerator.Dataset dataset, ThreadLocalRandom random, int client);
+    }
+
+    private record Request(String method, String path, String body, boolean authorized) {
+
+        static Request get(String path) {
+            return new Request("GET", path, null, true);
+        }
+    }
+
+    // Запущенное приложение: порт, токен первого пользователя датасета и выборка для запросов
+    private record Target(int port, String token, DatasetGenerator.Dataset dataset) {
+    }
+
+    // Латентности успешных запросов в микросекундах
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private int errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            append(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+
+        void add(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                append(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        private void append(long micros) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = micros;
+        }
+
+        String row(String mode, String scenario, int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return "| %s | %s | %.0f | %s | %s | %s | %s | %d |".formatted(mode, scenario, (double) size / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 1.0), errors);
+        }
+
+        private static String millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return "-";
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return "%.1f".formatted(sorted[Math.max(index, 0)] / 1000.0);
+        }
+    }
+}
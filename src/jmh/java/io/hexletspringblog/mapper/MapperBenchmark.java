@@ -0,0 +1,77 @@
+package io.hexletspringblog.mapper;
+
+import io.hexletspringblog.dto.CommentDTO;
+import io.hexletspringblog.dto.PostDTO;
+import io.hexletspringblog.dto.TagDTO;
+import io.hexletspringblog.model.Comment;
+import io.hexletspringblog.model.Post;
+import io.hexletspringblog.model.Tag;
+import io.hexletspringblog.support.PostGraphs;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Маппинг сущностей в DTO на графах, как у страницы постов: пост с тегами и комментариями.
+// Мапперы без Spring: toDTO не использует внедряемые зависимости
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"3"})
+    private int tags;
+
+    @Param({"0", "20"})
+    private int comments;
+
+    private final PostMapper postMapper = Mappers.getMapper(PostMapper.class);
+    private final CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
+    private final TagMapper tagMapper = Mappers.getMapper(TagMapper.class);
+    private List<Post> posts;
+    private List<Tag> allTags;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        posts = new PostGraphs(50).posts(64, tags, comments);
+        allTags = new ArrayList<>();
+        posts.forEach(post -> allTags.addAll(post.getTags()));
+    }
+
+    @Benchmark
+    public PostDTO postToDTO() {
+        return postMapper.toDTO(posts.get(next++ & 63));
+    }
+
+    @Benchmark
+    public List<CommentDTO> commentsToDTO() {
+        List<Comment> source = posts.get(next++ & 63).getComments();
+        List<CommentDTO> result = new ArrayList<>(source.size());
+        for (Comment comment : source) {
+            result.add(commentMapper.toDTO(comment));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TagDTO tagToDTO() {
+        return tagMapper.toTagDTO(allTags.get(next++ % allTags.size()));
+    }
+}
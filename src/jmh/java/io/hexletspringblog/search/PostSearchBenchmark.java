@@ -0,0 +1,103 @@
+package io.hexletspringblog.search;
+
+import net.datafaker.Faker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Сравнение поиска по инвертированному индексу с LIKE '%x%' в H2 на одинаковом наборе постов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSearchBenchmark {
+
+    @Param("100000")
+    private int posts;
+
+    private final PostSearchIndex index = new PostSearchIndex();
+    private final List<String> queries = new ArrayList<>();
+    private Connection connection;
+    private PreparedStatement likeQuery;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Faker faker = new Faker(new Random(42));
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, title VARCHAR(255), content VARCHAR(4000))");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO posts VALUES (?, ?, ?)")) {
+            for (long id = 1; id <= posts; id++) {
+                String title = faker.book().title();
+                String content = faker.lorem().paragraph(3);
+                index.put(id, title, content);
+                insert.setLong(1, id);
+                insert.setString(2, title);
+                insert.setString(3, content);
+                insert.addBatch();
+                if (id % 1000 == 0) {
+                    insert.executeBatch();
+                    queries.add(faker.lorem().word());
+                }
+            }
+            insert.executeBatch();
+        }
+        likeQuery = connection.prepareStatement(
+                "SELECT id FROM posts WHERE LOWER(title) LIKE ? OR LOWER(content) LIKE ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeQuery.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> invertedIndex() {
+        return index.search(nextQuery());
+    }
+
+    @Benchmark
+    public List<Long> likeScan() throws SQLException {
+        String pattern = "%" + nextQuery() + "%";
+        likeQuery.setString(1, pattern);
+        likeQuery.setString(2, pattern);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private String nextQuery() {
+        next = (next + 1) % queries.size();
+        return queries.get(next);
+    }
+}
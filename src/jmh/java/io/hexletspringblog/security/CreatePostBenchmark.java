@@ -0,0 +1,105 @@
+package io.hexletspringblog.security;
+
+import io.hexletspringblog.Application;
+import io.hexletspringblog.model.User;
+import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.util.JWTUtils;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Запросов в секунду на POST /api/posts в зависимости от токена (MockMvc поверх цепочки Spring Security,
+// без сетевого стека, чтобы измерялась работа сервера):
+// email-lookup - токен только с sub, автор ищется в БД по email (поведение до добавления claims);
+// claims - токен с uid, автор берется из JWT
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class CreatePostBenchmark {
+
+    @Param({"email-lookup", "claims"})
+    private String token;
+
+    private final AtomicLong counter = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String authorization;
+    private Long authorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:create-post-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=warn")
+                .run();
+
+        User user = new User();
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setEmail("bench@example.com");
+        user.setPasswordDigest("not-used");
+        user = context.getBean(UserRepository.class).save(user);
+        authorId = user.getId();
+
+        JWTUtils jwtUtils = context.getBean(JWTUtils.class);
+        authorization = "Bearer " + ("claims".equals(token)
+                ? jwtUtils.generateToken(user)
+                : jwtUtils.generateToken(user.getEmail()));
+
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createPost() throws Exception {
+        long n = counter.incrementAndGet();
+        String body = """
+                {"authorId": %d, "slug": "bench-%s-%d", "title": "Benchmark post %d", "content": "Benchmark post content"}
+                """.formatted(authorId, token, n, n);
+        int status = mockMvc.perform(post("/api/posts")
+                        .header("Authorization", authorization)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse().getStatus();
+        if (status != 201) {
+            throw new IllegalStateException("Unexpected status " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,50 @@
+package io.hexletspringblog.security;
+
+import io.hexletspringblog.model.User;
+import io.hexletspringblog.support.ApplicationState;
+import io.hexletspringblog.util.JWTUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Выпуск токена при логине: подпись RS256 ключом из EncodersConfig.
+// subject - только sub, claims - с uid и ролями
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JWTUtils jwtUtils;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        jwtUtils = application.getBean(JWTUtils.class);
+        user = new User();
+        user.setId(1L);
+        user.setEmail("bench@example.com");
+    }
+
+    @Benchmark
+    public String subject() {
+        return jwtUtils.generateToken(user.getEmail());
+    }
+
+    @Benchmark
+    public String claims() {
+        return jwtUtils.generateToken(user);
+    }
+}
@@ -0,0 +1,62 @@
+package io.hexletspringblog.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.hexletspringblog.dto.PostDTO;
+import io.hexletspringblog.mapper.PostMapper;
+import io.hexletspringblog.support.ApplicationState;
+import io.hexletspringblog.support.PostGraphs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Сериализация страницы постов ObjectMapper'ом приложения - тело ответа GET /api/posts.
+// size - размер страницы, у каждого поста 3 тега и comments комментариев
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    @Param({"0", "10"})
+    private int comments;
+
+    private ObjectWriter writer;
+    private Page<PostDTO> page;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        writer = application.getBean(ObjectMapper.class).writer();
+        PostMapper postMapper = application.getBean(PostMapper.class);
+        List<PostDTO> content = new PostGraphs(50).posts(size, 3, comments).stream()
+                .map(postMapper::toDTO)
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(0, size), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
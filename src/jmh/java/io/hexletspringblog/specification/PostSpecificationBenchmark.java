@@ -0,0 +1,76 @@
+package io.hexletspringblog.specification;
+
+import io.hexletspringblog.dto.PostParamsDTO;
+import io.hexletspringblog.model.Post;
+import io.hexletspringblog.support.ApplicationState;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Построение спецификации по параметрам запроса и ее предиката в Criteria API Hibernate -
+// то, что выполняется на каждый GET /api/posts до обращения к БД:
+// empty - без фильтров, filters - автор, даты, published и префикс заголовка,
+// tags-all - плюс подзапрос по пяти тегам с GROUP BY / HAVING
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostSpecificationBenchmark {
+
+    @Param({"empty", "filters", "tags-all"})
+    private String params;
+
+    private PostSpecification postSpecification;
+    private CriteriaBuilder cb;
+    private PostParamsDTO dto;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        postSpecification = application.getBean(PostSpecification.class);
+        cb = application.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+        dto = new PostParamsDTO();
+        if (!"empty".equals(params)) {
+            dto.setAuthorId(1L);
+            dto.setCreatedAtGt(LocalDate.of(2025, 1, 1));
+            dto.setCreatedAtLt(LocalDate.of(2025, 12, 31));
+            dto.setPublished(true);
+            dto.setTitleStartsWith("Spring_100%");
+        }
+        if ("tags-all".equals(params)) {
+            dto.setTags(List.of(1L, 2L, 3L, 4L, 5L));
+            dto.setMatch(PostSpecification.MATCH_ALL);
+        }
+    }
+
+    @Benchmark
+    public Specification<Post> build() {
+        return postSpecification.build(dto);
+    }
+
+    @Benchmark
+    public CriteriaQuery<Post> buildPredicate() {
+        CriteriaQuery<Post> query = cb.createQuery(Post.class);
+        Root<Post> root = query.from(Post.class);
+        return query.where(postSpecification.build(dto).toPredicate(root, query, cb));
+    }
+}
@@ -0,0 +1,39 @@
+package io.hexletspringblog.support;
+
+import io.hexletspringblog.Application;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Контекст приложения на H2 в памяти - бины берутся с той же конфигурацией, что и в проде
+// (ObjectMapper с модулями Boot, JwtEncoder из EncodersConfig, метамодель Hibernate).
+// Один на все бенчмарки форка
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                // Аргументами командной строки - они приоритетнее application.yml
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:hot-path-benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=warn");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,80 @@
+package io.hexletspringblog.support;
+
+import io.hexletspringblog.model.Comment;
+import io.hexletspringblog.model.Post;
+import io.hexletspringblog.model.Tag;
+import io.hexletspringblog.model.User;
+import net.datafaker.Faker;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Графы сущностей для бенчмарков без БД: пост с автором, тегами и комментариями,
+// тексты из Faker с фиксированным seed, чтобы прогоны между релизами были сравнимы
+public final class PostGraphs {
+
+    private final Faker faker = new Faker(new Random(42));
+    private final List<Tag> tags = new ArrayList<>();
+    private final User author = new User();
+    private long nextPostId = 1;
+    private long nextCommentId = 1;
+
+    public PostGraphs(int tagPool) {
+        author.setId(1L);
+        author.setFirstName(faker.name().firstName());
+        author.setLastName(faker.name().lastName());
+        author.setEmail(faker.internet().emailAddress());
+        for (long id = 1; id <= tagPool; id++) {
+            Tag tag = new Tag();
+            tag.setId(id);
+            tag.setName(faker.lorem().word() + "-" + id);
+            tags.add(tag);
+        }
+    }
+
+    public User author() {
+        return author;
+    }
+
+    public Post post(int tagCount, int commentCount) {
+        long id = nextPostId++;
+        Post post = new Post();
+        post.setId(id);
+        post.setAuthor(author);
+        post.setSlug("post-" + id);
+        post.setTitle(faker.book().title());
+        post.setContent(faker.lorem().paragraph(8));
+        post.setPublished(true);
+        post.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusHours(id));
+        post.setUpdatedAt(post.getCreatedAt().plusMinutes(30));
+        List<Tag> postTags = new ArrayList<>(tagCount);
+        for (int i = 0; i < tagCount; i++) {
+            postTags.add(tags.get((int) ((id + i) % tags.size())));
+        }
+        post.setTags(postTags);
+        for (int i = 0; i < commentCount; i++) {
+            post.getComments().add(comment(post));
+        }
+        return post;
+    }
+
+    public List<Post> posts(int count, int tagCount, int commentCount) {
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(post(tagCount, commentCount));
+        }
+        return posts;
+    }
+
+    private Comment comment(Post post) {
+        Comment comment = new Comment();
+        comment.setId(nextCommentId++);
+        comment.setBody(faker.lorem().sentence(12));
+        comment.setCreatedAt(LocalDate.of(2025, 1, 2));
+        comment.setPost(post);
+        return comment;
+    }
+}
@@ -0,0 +1,36 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+// Последовательности для id вместо IDENTITY: Hibernate берет id блоками (pooled-lo)
+// и может отправлять INSERT пачками. Каждая последовательность начинается после текущего
+// максимального id, поэтому существующие строки не затрагиваются. IDENTITY у столбцов
+// снимается в V6: его счетчик пересекался бы с id из последовательностей.
+// Java-миграция, а не SQL: установка начального значения по данным различается в H2 и PostgreSQL.
+public class V3__Id_sequences extends BaseJavaMigration {
+
+    // Должно совпадать с allocationSize в @SequenceGenerator сущностей
+    public static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("users", "posts", "tags", "comments");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long start;
+                try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    rs.next();
+                    start = rs.getLong(1);
+                }
+                statement.execute("CREATE SEQUENCE " + table + "_seq START WITH " + start
+                        + " INCREMENT BY " + ALLOCATION_SIZE);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.hexletspringblog.component;
+
+import io.hexletspringblog.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Явная инвалидация регионов второго уровня кэша Hibernate.
+// Выполняется после коммита, чтобы параллельное чтение не вернуло в кэш старые данные.
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    public static final String TAG_LIST_REGION = "query.tag-list";
+    public static final String USER_BY_EMAIL_REGION = "query.user-by-email";
+    public static final String POPULAR_TAGS_REGION = "query.popular-tags";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PostResponseCache postResponseCache;
+
+    public void evictTagList() {
+        afterCommit(() -> cache().evictQueryRegion(TAG_LIST_REGION));
+    }
+
+    public void evictUser(Long id) {
+        afterCommit(() -> {
+            cache().evictEntityData(User.class, id);
+            cache().evictQueryRegion(USER_BY_EMAIL_REGION);
+        });
+    }
+
+    // Закэшированные JSON-ответы по постам (карточка поста и все страницы списков)
+    public void evictPostResponses(Long postId) {
+        afterCommit(() -> postResponseCache.evictPost(postId));
+    }
+
+    public void evictAllPostResponses() {
+        afterCommit(postResponseCache::evictAll);
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
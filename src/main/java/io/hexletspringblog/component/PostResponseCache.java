@@ -0,0 +1,131 @@
+package io.hexletspringblog.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.hexletspringblog.event.PostChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кэш готовых JSON-ответов для анонимного чтения /api/posts и /api/posts/{id}.
+// Размер ограничен суммарным объемом тел ответов, вытеснение - W-TinyLFU из Caffeine.
+@Component
+public class PostResponseCache {
+
+    public static final String CACHE_NAME = "post-responses";
+
+    // postId == null - страница списка, она может содержать любой пост
+    public record Key(Long postId, String uri) {
+    }
+
+    public record Entry(byte[] body, String contentType, Map<String, String> headers) {
+    }
+
+    private final Cache<Key, Entry> cache;
+
+    // Ключи по постам и ключи страниц списков: инвалидация трогает только свои записи,
+    // а не перебирает весь кэш. Лишняя запись в индексе безвредна - invalidate по ней ничего не найдет
+    private final Map<Long, Set<Key>> keysByPost = new ConcurrentHashMap<>();
+    private final Set<Key> listKeys = ConcurrentHashMap.newKeySet();
+
+    // Увеличивается при каждой инвалидации; ответ, посчитанный до нее, в кэш не кладется
+    private final AtomicLong generation = new AtomicLong();
+
+    public PostResponseCache(@Value("${app.response-cache.max-bytes:33554432}") long maxBytes,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> key.uri().length() + entry.body().length)
+                .evictionListener((Key key, Entry entry, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.weighted.size", this, PostResponseCache::bytesHeld)
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .description("Bytes held by cached post responses")
+                .register(meterRegistry);
+    }
+
+    public Entry get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Key key, Entry entry, long expectedGeneration) {
+        if (generation.get() == expectedGeneration) {
+            // Ключ попадает в индекс до записи: инвалидация между ними его уже увидит
+            index(key);
+            cache.put(key, entry);
+            // Инвалидация могла пройти между проверкой и записью
+            if (generation.get() != expectedGeneration) {
+                cache.invalidate(key);
+                unindex(key);
+            }
+        }
+    }
+
+    // Удаляет карточку поста и все страницы списков
+    public void evictPost(Long postId) {
+        generation.incrementAndGet();
+        Set<Key> postKeys = keysByPost.remove(postId);
+        if (postKeys != null) {
+            cache.invalidateAll(postKeys);
+        }
+        List<Key> pages = List.copyOf(listKeys);
+        listKeys.removeAll(pages);
+        cache.invalidateAll(pages);
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        keysByPost.clear();
+        listKeys.clear();
+    }
+
+    public long bytesHeld() {
+        // Учет веса в Caffeine отложенный; cleanUp применяет накопленные изменения
+        cache.cleanUp();
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        evictPost(event.getPostId());
+    }
+
+    private void index(Key key) {
+        if (key.postId() == null) {
+            listKeys.add(key);
+        } else {
+            keysByPost.computeIfAbsent(key.postId(), id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unindex(Key key) {
+        if (key.postId() == null) {
+            listKeys.remove(key);
+        } else {
+            keysByPost.computeIfPresent(key.postId(), (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+}
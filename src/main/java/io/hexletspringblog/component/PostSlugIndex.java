@@ -0,0 +1,92 @@
+package io.hexletspringblog.component;
+
+import io.hexletspringblog.event.PostChangedEvent;
+import io.hexletspringblog.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Соответствие slug -> id всех постов: заполняется при старте, дальше поддерживается событиями PostChangedEvent.
+// Чтение без блокировок; промах (пост другого экземпляра приложения) проверяется в БД и запоминается
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSlugIndex {
+
+    // Проекция для заполнения индекса
+    public interface Entry {
+        Long getId();
+
+        String getSlug();
+    }
+
+    private final PostRepository postRepository;
+
+    private final Map<String, Long> idsBySlug = new ConcurrentHashMap<>();
+    // Обратное соответствие - чтобы при смене слага или удалении убрать старую запись
+    private final Map<Long, String> slugsById = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        clear();
+        try (Stream<Entry> entries = postRepository.streamSlugsBy()) {
+            entries.forEach(entry -> put(entry.getId(), entry.getSlug()));
+        }
+        log.info("Post slug index rebuilt: {} posts", size());
+    }
+
+    public Optional<Long> findId(String slug) {
+        Long id = idsBySlug.get(slug);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Long> stored = postRepository.findIdBySlug(slug);
+        stored.ifPresent(storedId -> put(storedId, slug));
+        return stored;
+    }
+
+    // Пары меняются вместе, поэтому записи сериализованы; чтения идут напрямую из ConcurrentHashMap
+    public synchronized void put(Long id, String slug) {
+        String previous = slugsById.put(id, slug);
+        if (previous != null && !previous.equals(slug)) {
+            idsBySlug.remove(previous, id);
+        }
+        idsBySlug.put(slug, id);
+    }
+
+    public synchronized void remove(Long id) {
+        String previous = slugsById.remove(id);
+        if (previous != null) {
+            idsBySlug.remove(previous, id);
+        }
+    }
+
+    public synchronized void clear() {
+        idsBySlug.clear();
+        slugsById.clear();
+    }
+
+    public int size() {
+        return slugsById.size();
+    }
+
+    // Индекс меняется только после успешного коммита, откаченные изменения в него не попадают
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            remove(event.getPostId());
+        } else {
+            put(event.getPostId(), event.getSlug());
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package io.hexletspringblog.config;
 
 import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Random;
+
 @Configuration
 public class FakerConfig {
 
+    // app.faker.seed задает воспроизводимые данные (генератор датасета для нагрузочных прогонов)
     @Bean
-    public Faker faker() {
-        return new Faker();
+    public Faker faker(@Value("${app.faker.seed:#{null}}") Long seed) {
+        return seed == null ? new Faker() : new Faker(new Random(seed));
     }
 }
@@ -0,0 +1,22 @@
+package io.hexletspringblog.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // hibernate.query.execution.total по каждому HQL-запросу (тег query) - видно, какие запросы доминируют.
+    // Общие hibernate.* (запросы, загрузки сущностей и коллекций, попадания в 2LC) и hikaricp.*
+    // регистрирует автоконфигурация Boot; все метрики Hibernate требуют hibernate.generate_statistics.
+    // unwrap до SessionFactoryImplementor: прокси Spring для SessionFactory HibernateQueryMetrics молча пропускает
+    @Bean
+    public MeterBinder hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> HibernateQueryMetrics.monitor(registry,
+                entityManagerFactory.unwrap(SessionFactoryImplementor.class), "entityManagerFactory");
+    }
+}
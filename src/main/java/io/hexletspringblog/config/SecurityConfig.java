@@ -1,9 +1,11 @@
 package io.hexletspringblog.config;
 
+import io.hexletspringblog.security.JwtUserAuthenticationConverter;
 import io.hexletspringblog.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -31,7 +33,12 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Публичные эндпоинты
                         .requestMatchers("/", "/about", "/welcome", "/api/login", "/api/users/register").permitAll()
-                        .requestMatchers("/api/posts", "/api/posts/{id}", "/api/tags", "/api/tags/{id}").permitAll()
+                        .requestMatchers("/api/posts/import").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/tags/batch").permitAll()
+                        .requestMatchers("/api/tags/batch").authenticated()
+                        .requestMatchers("/api/posts", "/api/posts/{id}", "/api/posts/by-slug/{slug}", "/api/tags").permitAll()
+                        // Изменение и удаление тега - только с аутентификацией
+                        .requestMatchers(HttpMethod.GET, "/api/tags/{id}").permitAll()
 
                         // Защищенные эндпоинты - требуют аутентификации
                         .requestMatchers("/api/posts/**", "/api/users/**", "/api/tags/**").authenticated()
@@ -39,7 +46,9 @@ public class SecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.decoder(jwtDecoder)))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                        .decoder(jwtDecoder)
+                        .jwtAuthenticationConverter(new JwtUserAuthenticationConverter())))
                 .build();
     }
 
@@ -54,6 +63,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userService);
         provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsPasswordService(userService);
         return provider;
     }
 }
@@ -0,0 +1,34 @@
+package io.hexletspringblog.config;
+
+import io.hexletspringblog.component.PostResponseCache;
+import io.hexletspringblog.filter.PostResponseCacheFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class WebCacheConfig {
+
+    // Слабый ETag по телу ответа для списков: экономит трафик и отвечает 304 на повторный запрос
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listEtagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+        filter.setWriteWeakETag(true);
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/posts", "/api/tags", "/api/tags/*");
+        // Снаружи кэша ответов: ETag считается и по закэшированным байтам
+        registration.setOrder(0);
+        return registration;
+    }
+
+    // Порядок выше, чем у цепочки Spring Security (-100): к этому моменту аутентификация уже известна
+    @Bean
+    public FilterRegistrationBean<PostResponseCacheFilter> postResponseCacheFilter(PostResponseCache responseCache) {
+        FilterRegistrationBean<PostResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new PostResponseCacheFilter(responseCache));
+        registration.addUrlPatterns("/api/posts", "/api/posts/*");
+        registration.setOrder(1);
+        return registration;
+    }
+}
@@ -1,6 +1,7 @@
 package io.hexletspringblog.controller;
 
 import io.hexletspringblog.dto.AuthRequest;
+import io.hexletspringblog.model.User;
 import io.hexletspringblog.util.JWTUtils;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,8 +26,11 @@ public class AuthenticationController {
                 authRequest.getPassword()
         );
 
-        authenticationManager.authenticate(authentication);
+        var authenticated = authenticationManager.authenticate(authentication);
 
+        if (authenticated.getPrincipal() instanceof User user) {
+            return jwtUtils.generateToken(user);
+        }
         return jwtUtils.generateToken(authRequest.getUsername());
     }
 }
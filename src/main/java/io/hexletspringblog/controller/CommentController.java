@@ -3,12 +3,15 @@ package io.hexletspringblog.controller;
 import io.hexletspringblog.dto.CommentDTO;
 import io.hexletspringblog.dto.CommentUpdateDTO;
 import io.hexletspringblog.service.CommentService;
+import io.hexletspringblog.util.NdjsonWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,15 +19,24 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final NdjsonWriter ndjsonWriter;
 
     @Autowired
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, NdjsonWriter ndjsonWriter) {
         this.commentService = commentService;
+        this.ndjsonWriter = ndjsonWriter;
     }
 
     @GetMapping(path = "")
-    public List<CommentDTO> index() {
-        return commentService.findAll();
+    public List<CommentDTO> index(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return commentService.findAll(afterId, size);
+    }
+
+    @GetMapping(path = "/export", produces = NdjsonWriter.MEDIA_TYPE)
+    public void export(HttpServletResponse response) throws IOException {
+        ndjsonWriter.<CommentDTO>write(response, commentService::streamAll);
     }
 
     @PostMapping
@@ -50,8 +62,12 @@ public class CommentController {
         commentService.delete(id);
     }
 
+    // Курсор - id последнего полученного комментария (afterId)
     @GetMapping("/post/{postId}")
-    public List<CommentDTO> getCommentsByPost(@PathVariable Long postId) {
-        return commentService.findByPostId(postId);
+    public List<CommentDTO> getCommentsByPost(
+            @PathVariable Long postId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return commentService.findByPostId(postId, afterId, size);
     }
 }
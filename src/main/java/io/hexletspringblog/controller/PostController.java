@@ -1,13 +1,22 @@
 package io.hexletspringblog.controller;
 
+import io.hexletspringblog.dto.CursorPageDTO;
 import io.hexletspringblog.dto.PostCreateDTO;
 import io.hexletspringblog.dto.PostDTO;
+import io.hexletspringblog.dto.PostImportResultDTO;
 import io.hexletspringblog.dto.PostParamsDTO;
+import io.hexletspringblog.dto.PostSummaryDTO;
 import io.hexletspringblog.dto.PostUpdateDTO;
-import io.hexletspringblog.model.User;
+import io.hexletspringblog.exception.BadRequestException;
+import io.hexletspringblog.service.PostImportService;
 import io.hexletspringblog.service.PostService;
 import io.hexletspringblog.specification.PostSpecification;
+import io.hexletspringblog.util.HttpValidators;
+import io.hexletspringblog.util.NdjsonWriter;
+import io.hexletspringblog.util.PageSizes;
 import io.hexletspringblog.util.UserUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +26,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -27,6 +44,10 @@ public class PostController {
 
     private final UserUtils userUtils;
 
+    private final PostImportService postImportService;
+
+    private final NdjsonWriter ndjsonWriter;
+
     // Публичный доступ - разрешен всем
     @GetMapping
     public Page<PostDTO> index(
@@ -37,26 +58,104 @@ public class PostController {
         return postService.findAll(params, pageable);
     }
 
+    // Публичный доступ - полнотекстовый поиск, результаты ранжированы по релевантности.
+    // Порядок и страницы задает поисковый индекс, поэтому фильтры, курсор и view с q не сочетаются
+    @GetMapping(params = "q")
+    public Page<PostDTO> indexByQuery(
+            @RequestParam String q,
+            PostParamsDTO params,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String view,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (hasFilters(params) || cursor != null || view != null) {
+            throw new BadRequestException("q cannot be combined with filters, cursor or view");
+        }
+        return search(q, page, size);
+    }
+
+    @GetMapping("/search")
+    public Page<PostDTO> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        PageSizes.check(size);
+        Pageable pageable = PageRequest.of(page, size);
+        return postService.search(q, pageable);
+    }
+
+    // Публичный доступ - краткое представление (view=summary) без content и комментариев
+    @GetMapping(params = {"view=summary", "!cursor", "!q"})
+    public Page<PostSummaryDTO> summaries(
+            PostParamsDTO params,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean excerpt) {
+        PageSizes.check(size);
+        Pageable pageable = PageRequest.of(page, size);
+        return postService.findSummaries(params, pageable, excerpt);
+    }
+
+    // Публичный доступ - курсорная пагинация, включается параметром cursor (пустой для первой страницы)
+    @GetMapping(params = {"cursor", "!q"})
+    public CursorPageDTO<PostDTO> scroll(
+            PostParamsDTO params,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return postService.findAll(params, cursor, size);
+    }
+
     // Публичный доступ - разрешен всем
     @GetMapping("/{id}")
-    public ResponseEntity<PostDTO> showPost(@PathVariable Long id) {
+    public ResponseEntity<PostDTO> showPost(@PathVariable Long id, WebRequest request) {
+        // Валидатор проверяется до загрузки и маппинга поста; на совпадение Spring отвечает 304
+        Optional<LocalDateTime> lastModified = postService.findLastModified(id);
+        if (lastModified.isPresent() && request.checkNotModified(
+                HttpValidators.etag(id, lastModified.get()), HttpValidators.lastModified(lastModified.get()))) {
+            return null;
+        }
+
+        // Валидатор считается так же, как в findLastModified: COALESCE(updatedAt, createdAt)
         PostDTO postDTO = postService.findById(id);
-        return ResponseEntity.ok(postDTO);
+        LocalDateTime modified = postDTO.getUpdatedAt() != null ? postDTO.getUpdatedAt() : postDTO.getCreatedAt();
+        if (modified == null) {
+            return ResponseEntity.ok(postDTO);
+        }
+        return ResponseEntity.ok()
+                .eTag(HttpValidators.etag(id, modified))
+                .lastModified(HttpValidators.lastModified(modified))
+                .body(postDTO);
+    }
+
+    // Публичный доступ - фронтенд адресует посты по слагу; id берется из PostSlugIndex без запроса к БД
+    @GetMapping("/by-slug/{slug}")
+    public ResponseEntity<PostDTO> showPostBySlug(@PathVariable String slug, WebRequest request) {
+        return showPost(postService.findIdBySlug(slug), request);
     }
 
     // Требует аутентификации
     @PostMapping
     public ResponseEntity<PostDTO> createPost(@Valid @RequestBody PostCreateDTO postCreateDTO) {
         // Можно автоматически устанавливать автора из текущего пользователя
-        User currentUser = userUtils.getCurrentUser();
-        if (currentUser != null) {
-            postCreateDTO.setAuthorId(currentUser.getId());
+        Long currentUserId = userUtils.getCurrentUserId();
+        if (currentUserId != null) {
+            postCreateDTO.setAuthorId(currentUserId);
         }
 
         PostDTO createdPost = postService.create(postCreateDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
     }
 
+    // Требует аутентификации - массовый импорт: тело NDJSON (строка = PostCreateDTO),
+    // в ответ по строке результата на каждую строку запроса. Автор, как в createPost, - текущий пользователь
+    @PostMapping(path = "/import", consumes = NdjsonWriter.MEDIA_TYPE, produces = NdjsonWriter.MEDIA_TYPE)
+    public void importPosts(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long currentUserId = userUtils.getCurrentUserId();
+        Reader body = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        ndjsonWriter.<PostImportResultDTO>write(response,
+                results -> postImportService.importPosts(body, currentUserId, results));
+    }
+
     // Требует аутентификации
     @PutMapping("/{id}")
     public ResponseEntity<PostDTO> updatePost(@PathVariable Long id, @Valid @RequestBody PostUpdateDTO postUpdateDTO) {
@@ -70,4 +169,15 @@ public class PostController {
         postService.delete(id);
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
-}
\ No newline at end of file
+
+    private static boolean hasFilters(PostParamsDTO params) {
+        return params.getNameCont() != null
+                || params.getAuthorId() != null
+                || params.getCreatedAtGt() != null
+                || params.getCreatedAtLt() != null
+                || params.getPublished() != null
+                || params.getTitleStartsWith() != null
+                || params.getTags() != null
+                || params.getMatch() != null;
+    }
+}
@@ -1,8 +1,11 @@
 package io.hexletspringblog.controller;
 
+import io.hexletspringblog.dto.TagBatchResultDTO;
+import io.hexletspringblog.dto.TagBatchUpdateDTO;
 import io.hexletspringblog.dto.TagCreateDTO;
 import io.hexletspringblog.dto.TagDTO;
 import io.hexletspringblog.dto.TagUpdateDTO;
+import io.hexletspringblog.dto.TagUsageDTO;
 import io.hexletspringblog.service.TagService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +29,12 @@ public class TagController {
         return ResponseEntity.ok(tags);
     }
 
+    // Публичный доступ - top-N тегов по числу постов (для сайдбара)
+    @GetMapping("/popular")
+    public ResponseEntity<List<TagUsageDTO>> getPopularTags(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tagService.findPopular(limit));
+    }
+
     // Публичный доступ
     @GetMapping("/{id}")
     public ResponseEntity<TagDTO> getTagById(@PathVariable Long id) {
@@ -40,10 +49,42 @@ public class TagController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTag);
     }
 
+    // Требует аутентификации
+    @PutMapping("/{id}")
+    public ResponseEntity<TagDTO> updateTag(@PathVariable Long id, @RequestBody TagUpdateDTO tagUpdateDTO) {
+        TagDTO updatedTag = tagService.update(id, tagUpdateDTO);
+        return ResponseEntity.ok(updatedTag);
+    }
+
+    // Публичный доступ - несколько тегов одним запросом: /api/tags/batch?ids=1,2,3
+    @GetMapping("/batch")
+    public ResponseEntity<List<TagDTO>> getTagsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(tagService.findByIds(ids));
+    }
+
+    // Требует аутентификации - пакетные операции возвращают результат по каждому элементу
+    @PostMapping("/batch")
+    public ResponseEntity<List<TagBatchResultDTO>> createTags(@RequestBody List<TagCreateDTO> tagCreateDTOs) {
+        return ResponseEntity.ok(tagService.createBatch(tagCreateDTOs));
+    }
+
+    // Требует аутентификации
+    @PutMapping("/batch")
+    public ResponseEntity<List<TagBatchResultDTO>> updateTags(@RequestBody List<TagBatchUpdateDTO> updates) {
+        return ResponseEntity.ok(tagService.updateBatch(updates));
+    }
+
+    // Требует аутентификации
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<TagBatchResultDTO>> deleteTags(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(tagService.deleteBatch(ids));
+    }
+
     // Требует аутентификации
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTag(@PathVariable Long id) {
-        tagService.delete(id);
+    public ResponseEntity<Void> deleteTag(@PathVariable Long id,
+                                          @RequestParam(defaultValue = "false") boolean force) {
+        tagService.delete(id, force);
         return ResponseEntity.noContent().build();
     }
 }
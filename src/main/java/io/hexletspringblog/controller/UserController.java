@@ -1,5 +1,6 @@
 package io.hexletspringblog.controller;
 
+import io.hexletspringblog.component.EntityCacheEvictor;
 import io.hexletspringblog.dto.UserCreateDTO;
 import io.hexletspringblog.dto.UserDTO;
 import io.hexletspringblog.dto.UserRegistrationDTO;
@@ -10,13 +11,18 @@ import io.hexletspringblog.mapper.UserMapper;
 import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.UserRepository;
 import io.hexletspringblog.service.CustomUserDetailsService;
+import io.hexletspringblog.util.HttpValidators;
+import io.hexletspringblog.util.NdjsonWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -31,10 +37,23 @@ public class UserController {
     @Autowired
     private CustomUserDetailsService userService;
 
+    @Autowired
+    private NdjsonWriter ndjsonWriter;
+
+    @Autowired
+    private EntityCacheEvictor cacheEvictor;
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream().map(userMapper::toUserDTO).toList();
+    public List<UserDTO> getAllUsers(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "20") int size) {
+        return userService.findAll(afterId, size);
+    }
+
+    @GetMapping(path = "/export", produces = NdjsonWriter.MEDIA_TYPE)
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        ndjsonWriter.<UserDTO>write(response, userService::streamAll);
     }
 
     @PostMapping
@@ -44,6 +63,7 @@ public class UserController {
         }
         User user = userMapper.toEntity(userCreateDTO);
         User saved = userRepository.save(user);
+        cacheEvictor.evictUser(saved.getId());
         UserDTO userDTO = userMapper.toUserDTO(saved);
         return ResponseEntity.status(HttpStatus.CREATED).body(userDTO);
     }
@@ -62,15 +82,28 @@ public class UserController {
         userMapper.updateEntityFromDTO(userUpdateDTO, user);
 
         userRepository.save(user);
+        cacheEvictor.evictUser(id);
 
         return ResponseEntity.ok(userMapper.toUserDTO(user));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> showUser(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> showUser(@PathVariable Long id, WebRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return ResponseEntity.ok(userMapper.toUserDTO(user));
+        if (user.getUpdatedAt() == null) {
+            return ResponseEntity.ok(userMapper.toUserDTO(user));
+        }
+
+        String etag = HttpValidators.etag(id, user.getUpdatedAt());
+        long lastModified = HttpValidators.lastModified(user.getUpdatedAt());
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(lastModified)
+                .body(userMapper.toUserDTO(user));
     }
 
     @DeleteMapping("/{id}")
@@ -78,7 +111,8 @@ public class UserController {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
-        userRepository.deleteById(id);
+        userService.deleteById(id);
+        cacheEvictor.evictUser(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -95,6 +129,7 @@ public class UserController {
         user.setPasswordDigest(registrationDTO.getPassword()); // Будет закодирован в сервисе
 
         userService.createUser(user);
+        cacheEvictor.evictUser(user.getId());
         return ResponseEntity.status(HttpStatus.CREATED).body("User registered successfully");
     }
 }
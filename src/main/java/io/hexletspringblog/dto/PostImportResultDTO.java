@@ -0,0 +1,35 @@
+package io.hexletspringblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Результат импорта одной строки NDJSON
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostImportResultDTO {
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    private long line;
+    private Status status;
+    private Long id;
+    private String slug;
+    private String error;
+
+    public static PostImportResultDTO created(long line, Long id, String slug) {
+        return new PostImportResultDTO(line, Status.CREATED, id, slug, null);
+    }
+
+    public static PostImportResultDTO failed(long line, String slug, String error) {
+        return new PostImportResultDTO(line, Status.FAILED, null, slug, error);
+    }
+}
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Getter
 @Setter
@@ -12,4 +13,9 @@ public class PostParamsDTO {
     private Long authorId;
     private LocalDate createdAtGt;
     private LocalDate createdAtLt;
+    private Boolean published;
+    private String titleStartsWith;
+    private List<Long> tags;
+    // any (по умолчанию) или all
+    private String match;
 }
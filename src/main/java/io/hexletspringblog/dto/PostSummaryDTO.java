@@ -0,0 +1,35 @@
+package io.hexletspringblog.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class PostSummaryDTO {
+    private Long id;
+    private String slug;
+    private String title;
+    private Long authorId;
+    private List<String> tagNames = new ArrayList<>();
+    private LocalDateTime createdAt;
+    private Integer commentCount;
+    private String excerpt;
+
+    // Используется в конструкторной проекции PostSummaryRepositoryImpl
+    public PostSummaryDTO(Long id, String slug, String title, Long authorId,
+                          LocalDateTime createdAt, Integer commentCount, String excerpt) {
+        this.id = id;
+        this.slug = slug;
+        this.title = title;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+        this.commentCount = commentCount;
+        this.excerpt = excerpt;
+    }
+}
@@ -0,0 +1,41 @@
+package io.hexletspringblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Результат пакетной операции над одним элементом запроса (index - позиция в запросе)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TagBatchResultDTO {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        FAILED
+    }
+
+    private int index;
+    private Status status;
+    private Long id;
+    private TagDTO tag;
+    private String error;
+
+    public static TagBatchResultDTO success(int index, Status status, TagDTO tag) {
+        return new TagBatchResultDTO(index, status, tag.getId(), tag, null);
+    }
+
+    public static TagBatchResultDTO deleted(int index, Long id) {
+        return new TagBatchResultDTO(index, Status.DELETED, id, null, null);
+    }
+
+    public static TagBatchResultDTO failed(int index, Long id, String error) {
+        return new TagBatchResultDTO(index, Status.FAILED, id, null, error);
+    }
+}
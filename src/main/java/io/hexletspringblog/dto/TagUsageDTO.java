@@ -0,0 +1,12 @@
+package io.hexletspringblog.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TagUsageDTO {
+    private Long id;
+    private String name;
+    private int postCount;
+}
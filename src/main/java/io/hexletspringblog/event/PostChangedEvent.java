@@ -0,0 +1,26 @@
+package io.hexletspringblog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Публикуется PostService после изменения поста; слушатели обрабатывают его после коммита
+@Getter
+@AllArgsConstructor
+public class PostChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long postId;
+    private final String slug;
+    private final String title;
+    private final String content;
+
+    public static PostChangedEvent deleted(Long postId) {
+        return new PostChangedEvent(Type.DELETED, postId, null, null, null);
+    }
+}
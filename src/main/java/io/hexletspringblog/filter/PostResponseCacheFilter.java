@@ -0,0 +1,111 @@
+package io.hexletspringblog.filter;
+
+import io.hexletspringblog.component.PostResponseCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Отдает анонимным читателям закэшированные байты ответа без запроса в БД, маппинга и сериализации.
+// Работает после Spring Security, поэтому аутентифицированные запросы видны и идут мимо кэша.
+@RequiredArgsConstructor
+public class PostResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern POST_PATH = Pattern.compile("^/api/posts(?:/(\\d+))?$");
+    private static final String[] REPLAYED_HEADERS = {HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED};
+
+    private final PostResponseCache responseCache;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) || isAuthenticated()) {
+            return true;
+        }
+        Matcher matcher = POST_PATH.matcher(request.getRequestURI());
+        if (!matcher.matches()) {
+            return true;
+        }
+        // Условные запросы к карточке поста обрабатывает контроллер без загрузки сущности.
+        // Для списков такого пути нет: закэшированное тело в 304 превращает ShallowEtagHeaderFilter
+        return matcher.group(1) != null
+                && (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        PostResponseCache.Key key = key(request);
+        PostResponseCache.Entry cached = responseCache.get(key);
+        if (cached != null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(cached.contentType());
+            cached.headers().forEach(response::setHeader);
+            response.setContentLength(cached.body().length);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        long generation = responseCache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null) {
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : REPLAYED_HEADERS) {
+                    String value = wrapper.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                responseCache.put(key, new PostResponseCache.Entry(
+                        wrapper.getContentAsByteArray(), wrapper.getContentType(), headers), generation);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    // Параметры сортируются, чтобы ?size=5&page=1 и ?page=1&size=5 попадали в одну запись
+    static PostResponseCache.Key key(HttpServletRequest request) {
+        Matcher matcher = POST_PATH.matcher(request.getRequestURI());
+        Long postId = matcher.matches() && matcher.group(1) != null ? Long.valueOf(matcher.group(1)) : null;
+
+        StringBuilder uri = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> param : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : param.getValue()) {
+                uri.append(separator)
+                        .append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                        .append('=')
+                        .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                separator = '&';
+            }
+        }
+        return new PostResponseCache.Key(postId, uri.toString());
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
@@ -3,6 +3,7 @@ package io.hexletspringblog.mapper;
 import io.hexletspringblog.dto.TagCreateDTO;
 import io.hexletspringblog.dto.TagDTO;
 import io.hexletspringblog.dto.TagUpdateDTO;
+import io.hexletspringblog.dto.TagUsageDTO;
 import io.hexletspringblog.model.Tag;
 import org.mapstruct.*;
 import org.openapitools.jackson.nullable.JsonNullable;
@@ -12,10 +13,15 @@ public interface TagMapper {
 
     TagDTO toTagDTO(Tag tag);
 
+    TagUsageDTO toTagUsageDTO(Tag tag);
+
+    @Mapping(target = "postCount", ignore = true)
     Tag toTag(TagDTO tagDTO);
 
+    @Mapping(target = "postCount", ignore = true)
     Tag toTag(TagCreateDTO tagCreateDTO);
 
+    @Mapping(target = "postCount", ignore = true)
     void update(TagUpdateDTO tagUpdateDTO, @MappingTarget Tag tag);
 
     default String map(JsonNullable<String> value) {
@@ -9,22 +9,32 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Setter
 @Getter
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_user_id_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_posts_published_created_at", columnList = "published, created_at")
+})
 @EntityListeners(AuditingEntityListener.class)
+@NamedEntityGraph(name = "Post.detail", attributeNodes = @NamedAttributeNode("tags"))
 public class Post implements BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", allocationSize = 50)
     @ToString.Include
     @EqualsAndHashCode.Include
     private Long id;
@@ -34,7 +44,9 @@ public class Post implements BaseEntity {
     @JoinColumn(name = "user_id")
     private User author;
 
+    // Коллекции листинга догружаются пачками (IN по id постов страницы), а не по одному запросу на пост
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Comment> comments = new ArrayList<>();
@@ -43,11 +55,14 @@ public class Post implements BaseEntity {
     @JoinTable(
             name = "post_tag",
             joinColumns = @JoinColumn(name = "post_id"),
-            inverseJoinColumns = @JoinColumn(name = "tag_id")
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_post_tag_tag_id_post_id", columnList = "tag_id, post_id")
     )
+    @BatchSize(size = 100)
+    @OrderBy("id")
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    private List<Tag> tags = new ArrayList<>();
+    private Set<Tag> tags = new LinkedHashSet<>();
 
     @Column(unique = true)
     @ToString.Include
@@ -69,6 +84,11 @@ public class Post implements BaseEntity {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Отмечает пост измененным, когда меняется вложенное в его представление (комментарии)
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     public void addComment(Comment comment) {
         comments.add(comment);
         comment.setPost(this);
@@ -89,11 +109,11 @@ public class Post implements BaseEntity {
         tag.getPosts().remove(this);
     }
 
-    // Добавьте методы для безопасной работы с коллекцией tags
-    public void setTags(List<Tag> tags) {
-        this.tags.clear();
-        if (tags != null) {
-            this.tags.addAll(tags);
-        }
+    // Заменяет теги разницей, а не clear() + addAll(): Hibernate пишет в post_tag только
+    // удаленные и добавленные строки, при неизменном наборе - ничего
+    public void setTags(Collection<Tag> tags) {
+        Set<Tag> target = tags == null ? Set.of() : new LinkedHashSet<>(tags);
+        this.tags.retainAll(target);
+        this.tags.addAll(target);
     }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import jakarta.validation.constraints.Size;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.ToString;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -16,12 +18,17 @@ import java.util.List;
 @Setter
 @Getter
 @Entity
-@Table(name = "tags")
+@Table(name = "tags", indexes = {
+        @Index(name = "idx_tags_post_count_id", columnList = "post_count DESC, id")
+})
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Tag implements BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tags_seq")
+    @SequenceGenerator(name = "tags_seq", allocationSize = 50)
     @ToString.Include
     @EqualsAndHashCode.Include
     private Long id;
@@ -36,6 +43,11 @@ public class Tag implements BaseEntity {
     @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
     private String name;
 
+    // Число постов с тегом; меняется только атомарными UPDATE (TagRepository.adjustPostCounts),
+    // поэтому сущность этот столбец не пишет - иначе сохранение тега затерло бы чужие изменения
+    @Column(name = "post_count", nullable = false, insertable = false, updatable = false)
+    private int postCount;
+
     public void addPost(Post post) {
         posts.add(post);
         post.getTags().add(this);
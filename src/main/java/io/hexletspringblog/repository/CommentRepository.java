@@ -1,10 +1,35 @@
 package io.hexletspringblog.repository;
 
 import io.hexletspringblog.model.Comment;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    List<Comment> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Для выгрузки: курсор БД с fetch size, сущности только для чтения
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Comment> streamAllByOrderByIdAsc();
+
+    @Query("SELECT c.post.id FROM Comment c WHERE c.id = :id")
+    Optional<Long> findPostIdById(@Param("id") Long id);
+
+    // Seek-пагинация по индексу (post_id, id)
+    List<Comment> findByPostIdAndIdGreaterThanOrderByIdAsc(Long postId, Long afterId, Limit limit);
 }
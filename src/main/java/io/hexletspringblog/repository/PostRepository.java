@@ -1,37 +1,91 @@
 package io.hexletspringblog.repository;
 
+import io.hexletspringblog.component.PostSlugIndex;
 import io.hexletspringblog.mapper.TagMapper;
 import io.hexletspringblog.model.Post;
+import io.hexletspringblog.search.PostSearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
+public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post>,
+        PostSummaryRepository {
 
     // Поиск постов по заголовку (частичное совпадение)
     List<Post> findByTitleContainingIgnoreCase(String title);
 
+    // Выгрузка id, title и content для построения поискового индекса
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<PostSearchDocument> streamSearchDocumentsBy();
+
     // Поиск постов, содержащих определенный тег
     @Query("SELECT p FROM Post p JOIN p.tags t WHERE t.id = :tagId")
     List<Post> findByTagId(@Param("tagId") Long tagId);
 
-    // Поиск постов по нескольким тегам
-    @Query("SELECT p FROM Post p JOIN p.tags t WHERE t.id IN :tagIds")
+    // Поиск постов по нескольким тегам: полусоединение вместо JOIN, чтобы пост с несколькими
+    // из тегов не повторялся. Постраничный вариант с match=any/all - PostSpecification.withTags
+    @Query("SELECT p FROM Post p WHERE p.id IN (SELECT pt.id FROM Post pt JOIN pt.tags t WHERE t.id IN :tagIds)")
     List<Post> findByTagIds(@Param("tagIds") List<Long> tagIds);
 
     // Проверка существования поста с заголовком
     boolean existsByTitle(String title);
 
+    // EXISTS с LIMIT 1 по индексу (tag_id, post_id) - без загрузки постов тега
+    boolean existsByTagsId(Long tagId);
+
     // Поиск по слагу (если есть поле slug)
     Optional<Post> findBySlug(String slug);
 
+    @Query("SELECT p.id FROM Post p WHERE p.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+
+    @Query("SELECT p.id FROM Post p WHERE p.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    // Выгрузка пар id/slug для PostSlugIndex
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<PostSlugIndex.Entry> streamSlugsBy();
+
+    // Сам слаг и все slug-N одним диапазонным запросом по уникальному индексу slug
+    @Query("SELECT p.slug FROM Post p WHERE p.slug = :slug OR p.slug LIKE :pattern ESCAPE '\\'")
+    List<String> findSlugsLike(@Param("slug") String slug, @Param("pattern") String pattern);
+
+    // Детальная карточка: теги в том же запросе, комментарии - одним батчем
+    @EntityGraph("Post.detail")
+    Optional<Post> findDetailById(Long id);
+
+    // Время последнего изменения для условных запросов, без загрузки сущности
+    @Query("SELECT COALESCE(p.updatedAt, p.createdAt) FROM Post p WHERE p.id = :id")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
+    // Комментарии и теги входят в представление поста, поэтому их изменения обновляют updatedAt
+    @Modifying
+    @Query("UPDATE Post p SET p.updatedAt = :now WHERE p.id = (SELECT c.post.id FROM Comment c WHERE c.id = :commentId)")
+    int touchByCommentId(@Param("commentId") Long commentId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.updatedAt = :now WHERE p.id IN (SELECT pt.id FROM Post pt JOIN pt.tags t WHERE t.id = :tagId)")
+    int touchByTagId(@Param("tagId") Long tagId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.updatedAt = :now WHERE p.id IN (SELECT pt.id FROM Post pt JOIN pt.tags t WHERE t.id IN :tagIds)")
+    int touchByTagIds(@Param("tagIds") Collection<Long> tagIds, @Param("now") LocalDateTime now);
+
     @Query("SELECT p FROM Post p LEFT JOIN FETCH p.tags WHERE p.id = :id")
     Optional<Post> findByIdWithTags(@Param("id") Long id);
 
@@ -44,4 +98,7 @@ public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificat
     // Пагинация с тегами
     @Query("SELECT p FROM Post p LEFT JOIN FETCH p.tags LEFT JOIN FETCH p.author")
     Page<Post> findAllWithTagsAndAuthor(Pageable pageable);
+
+    @Query("SELECT p.slug FROM Post p WHERE p.slug IN :slugs")
+    List<String> findExistingSlugs(@Param("slugs") Collection<String> slugs);
 }
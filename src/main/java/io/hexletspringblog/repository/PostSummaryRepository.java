@@ -0,0 +1,13 @@
+package io.hexletspringblog.repository;
+
+import io.hexletspringblog.dto.PostSummaryDTO;
+import io.hexletspringblog.model.Post;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface PostSummaryRepository {
+
+    // Краткое представление постов без загрузки сущностей, content и комментариев
+    Page<PostSummaryDTO> findSummaries(Specification<Post> spec, Pageable pageable, boolean withExcerpt);
+}
@@ -0,0 +1,93 @@
+package io.hexletspringblog.repository;
+
+import io.hexletspringblog.dto.PostSummaryDTO;
+import io.hexletspringblog.model.Post;
+import io.hexletspringblog.util.PostCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class PostSummaryRepositoryImpl implements PostSummaryRepository {
+
+    private static final int EXCERPT_LENGTH = 200;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<PostSummaryDTO> findSummaries(Specification<Post> spec, Pageable pageable, boolean withExcerpt) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PostSummaryDTO> query = cb.createQuery(PostSummaryDTO.class);
+        Root<Post> root = query.from(Post.class);
+
+        query.select(cb.construct(PostSummaryDTO.class,
+                root.get("id"),
+                root.get("slug"),
+                root.get("title"),
+                root.get("author").get("id"),
+                root.get("createdAt"),
+                cb.size(root.<List<?>>get("comments")),
+                withExcerpt
+                        ? cb.substring(root.get("content"), 1, EXCERPT_LENGTH)
+                        : cb.nullLiteral(String.class)));
+        applyPredicate(spec, root, query, cb);
+
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : PostCursor.SORT;
+        query.orderBy(toOrders(sort, root, cb));
+
+        List<PostSummaryDTO> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        fillTagNames(content);
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<Post> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Post> root = query.from(Post.class);
+        query.select(cb.count(root));
+        applyPredicate(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applyPredicate(Specification<Post> spec, Root<Post> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    // Имена тегов догружаются одним запросом по id постов страницы
+    private void fillTagNames(List<PostSummaryDTO> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        List<Long> ids = summaries.stream().map(PostSummaryDTO::getId).toList();
+        Map<Long, List<String>> tagNames = entityManager.createQuery(
+                        "SELECT p.id, t.name FROM Post p JOIN p.tags t WHERE p.id IN :ids ORDER BY t.name", Tuple.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.groupingBy(
+                        tuple -> tuple.get(0, Long.class),
+                        Collectors.mapping(tuple -> tuple.get(1, String.class), Collectors.toList())));
+        summaries.forEach(summary -> summary.setTagNames(tagNames.getOrDefault(summary.getId(), List.of())));
+    }
+}
@@ -1,14 +1,32 @@
 package io.hexletspringblog.repository;
 
+import io.hexletspringblog.component.EntityCacheEvictor;
 import io.hexletspringblog.model.Tag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    // Полный список тегов - из кэша запросов (сами теги - из кэша сущностей)
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheEvictor.TAG_LIST_REGION)
+    })
+    List<Tag> findAll();
+
     Optional<Tag> findByName(String name);
 
     boolean existsByName(String name);
@@ -27,4 +45,50 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
 
     @Query("SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.id = :tagId")
     Long countPostsByTagId(@Param("tagId") Long tagId);
+
+    @Query("SELECT t.id FROM Tag t WHERE t.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Какие из тегов привязаны хотя бы к одному посту - одним запросом по индексу (tag_id, post_id)
+    @Query("SELECT DISTINCT t.id FROM Post p JOIN p.tags t WHERE t.id IN :ids")
+    List<Long> findIdsInUse(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Tag t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Отвязка тега от всех постов одним DELETE по таблице связей; пространство запроса указано,
+    // чтобы Hibernate не сбрасывал из-за native-запроса весь кэш второго уровня
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_tag"))
+    @Query(value = "DELETE FROM post_tag WHERE tag_id = :tagId", nativeQuery = true)
+    int detachFromAllPosts(@Param("tagId") Long tagId);
+
+    @Query("SELECT t.id FROM Post p JOIN p.tags t WHERE p.id = :postId")
+    List<Long> findIdsByPostId(@Param("postId") Long postId);
+
+    // По строке на каждую связь пост-тег: тег повторяется столько раз, у скольких постов автора он есть
+    @Query("SELECT t.id FROM Post p JOIN p.tags t WHERE p.author.id = :authorId")
+    List<Long> findIdsByPostAuthorId(@Param("authorId") Long authorId);
+
+    // Популярные теги - начало индекса (post_count DESC, id); результат в кэше запросов
+    // до следующего изменения таблицы tags
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheEvictor.POPULAR_TAGS_REGION)
+    })
+    List<Tag> findByOrderByPostCountDescIdAsc(Limit limit);
+
+    @Modifying
+    @Query("UPDATE Tag t SET t.postCount = t.postCount + :delta WHERE t.id IN :ids")
+    int adjustPostCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    // Атомарное изменение счетчиков без чтения тегов: одно UPDATE на каждую величину изменения
+    default void adjustPostCounts(Map<Long, Integer> deltas) {
+        deltas.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((delta, ids) -> adjustPostCount(ids, delta));
+    }
 }
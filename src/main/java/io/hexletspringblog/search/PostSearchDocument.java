@@ -0,0 +1,10 @@
+package io.hexletspringblog.search;
+
+// Проекция поста для построения поискового индекса
+public interface PostSearchDocument {
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+}
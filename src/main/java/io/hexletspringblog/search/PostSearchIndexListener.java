@@ -0,0 +1,69 @@
+package io.hexletspringblog.search;
+
+import io.hexletspringblog.event.PostChangedEvent;
+import io.hexletspringblog.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndexListener {
+
+    private final PostSearchIndex postSearchIndex;
+    private final PostRepository postRepository;
+
+    // События, пришедшие во время перестройки; null - перестройка не идет
+    private List<PostChangedEvent> pending;
+
+    // Приложение уже принимает запросы: новый индекс строится в стороне, события за время
+    // построения накапливаются и применяются к нему перед подменой, поэтому ни одно не теряется
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            pending = new ArrayList<>();
+        }
+        PostSearchIndex fresh = new PostSearchIndex();
+        try (Stream<PostSearchDocument> documents = postRepository.streamSearchDocumentsBy()) {
+            documents.forEach(document -> fresh.put(document.getId(), document.getTitle(), document.getContent()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pending.forEach(event -> apply(fresh, event));
+            postSearchIndex.replaceWith(fresh);
+            pending = null;
+        }
+        log.info("Post search index rebuilt: {} posts", postSearchIndex.size());
+    }
+
+    // Индекс меняется только после успешного коммита, откаченные изменения в него не попадают
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostChanged(PostChangedEvent event) {
+        if (pending != null) {
+            pending.add(event);
+        }
+        apply(postSearchIndex, event);
+    }
+
+    private static void apply(PostSearchIndex index, PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            index.remove(event.getPostId());
+        } else {
+            index.put(event.getPostId(), event.getTitle(), event.getContent());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.hexletspringblog.security;
+
+import java.security.Principal;
+import java.util.List;
+
+// Текущий пользователь, восстановленный из claims JWT без обращения к БД
+public record AuthenticatedUser(Long id, String email, List<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
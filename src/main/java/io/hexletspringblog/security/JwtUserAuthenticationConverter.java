@@ -0,0 +1,31 @@
+package io.hexletspringblog.security;
+
+import io.hexletspringblog.util.JWTUtils;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+
+// Строит аутентификацию с AuthenticatedUser в качестве principal.
+// У токенов, выпущенных до появления claim uid, id будет null.
+public class JwtUserAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        List<String> roles = jwt.hasClaim(JWTUtils.ROLES_CLAIM)
+                ? jwt.getClaimAsStringList(JWTUtils.ROLES_CLAIM)
+                : List.of();
+        Number userId = jwt.getClaim(JWTUtils.USER_ID_CLAIM);
+
+        AuthenticatedUser principal = new AuthenticatedUser(
+                userId != null ? userId.longValue() : null, jwt.getSubject(), roles);
+        List<GrantedAuthority> authorities = roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return UsernamePasswordAuthenticationToken.authenticated(principal, jwt, authorities);
+    }
+}
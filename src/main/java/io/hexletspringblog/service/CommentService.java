@@ -1,5 +1,6 @@
 package io.hexletspringblog.service;
 
+import io.hexletspringblog.component.EntityCacheEvictor;
 import io.hexletspringblog.dto.CommentDTO;
 import io.hexletspringblog.dto.CommentUpdateDTO;
 import io.hexletspringblog.exception.ResourceNotFoundException;
@@ -8,38 +9,65 @@ import io.hexletspringblog.model.Comment;
 import io.hexletspringblog.model.Post;
 import io.hexletspringblog.repository.CommentRepository;
 import io.hexletspringblog.repository.PostRepository;
+import io.hexletspringblog.util.PageSizes;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("service.method")
 @Transactional
 public class CommentService {
 
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final CommentMapper commentMapper;
+    private final EntityManager entityManager;
+    private final EntityCacheEvictor cacheEvictor;
 
     @Autowired
     public CommentService(CommentRepository commentRepository,
                           PostRepository postRepository,
-                          CommentMapper commentMapper) {
+                          CommentMapper commentMapper,
+                          EntityManager entityManager,
+                          EntityCacheEvictor cacheEvictor) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.commentMapper = commentMapper;
+        this.entityManager = entityManager;
+        this.cacheEvictor = cacheEvictor;
     }
 
     @Transactional(readOnly = true)
-    public List<CommentDTO> findAll() {
-        return commentRepository.findAll()
+    public List<CommentDTO> findAll(Long afterId, int size) {
+        PageSizes.check(size);
+        long from = afterId == null ? 0L : afterId;
+        return commentRepository.findByIdGreaterThanOrderByIdAsc(from, Limit.of(size))
                 .stream()
                 .map(commentMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    // Обработанные комментарии отсоединяются, чтобы persistence context не рос вместе с таблицей
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<CommentDTO> consumer) {
+        try (Stream<Comment> comments = commentRepository.streamAllByOrderByIdAsc()) {
+            comments.forEach(comment -> {
+                consumer.accept(commentMapper.toDTO(comment));
+                entityManager.detach(comment);
+            });
+        }
+    }
+
     @Transactional(readOnly = true)
     public CommentDTO findById(Long id) {
         Comment comment = commentRepository.findById(id)
@@ -57,8 +85,10 @@ public class CommentService {
 
         Comment comment = commentMapper.toEntity(commentDTO);
         comment.setPost(post);
+        post.touch();
 
         Comment savedComment = commentRepository.save(comment);
+        cacheEvictor.evictPostResponses(post.getId());
         return commentMapper.toDTO(savedComment);
     }
 
@@ -70,12 +100,16 @@ public class CommentService {
         if (commentUpdateDTO.getPostId() != null && !commentUpdateDTO.getPostId().equals(comment.getPost().getId())) {
             Post post = postRepository.findById(commentUpdateDTO.getPostId())
                     .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + commentUpdateDTO.getPostId()));
+            comment.getPost().touch();
+            cacheEvictor.evictPostResponses(comment.getPost().getId());
             comment.setPost(post);
         }
 
         comment.setBody(commentUpdateDTO.getBody());
+        comment.getPost().touch();
 
         Comment updatedComment = commentRepository.save(comment);
+        cacheEvictor.evictPostResponses(comment.getPost().getId());
         return commentMapper.toDTO(updatedComment);
     }
 
@@ -83,17 +117,21 @@ public class CommentService {
         if (!commentRepository.existsById(id)) {
             throw new ResourceNotFoundException("Comment not found with id: " + id);
         }
+        commentRepository.findPostIdById(id).ifPresent(cacheEvictor::evictPostResponses);
+        postRepository.touchByCommentId(id, LocalDateTime.now());
         commentRepository.deleteById(id);
     }
 
     @Transactional(readOnly = true)
-    public List<CommentDTO> findByPostId(Long postId) {
+    public List<CommentDTO> findByPostId(Long postId, Long afterId, int size) {
+        PageSizes.check(size);
         if (!postRepository.existsById(postId)) {
             throw new ResourceNotFoundException("Post not found with id: " + postId);
         }
 
-        return commentRepository.findAll().stream()
-                .filter(comment -> comment.getPost().getId().equals(postId))
+        long from = afterId == null ? 0L : afterId;
+        return commentRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(postId, from, Limit.of(size))
+                .stream()
                 .map(commentMapper::toDTO)
                 .collect(Collectors.toList());
     }
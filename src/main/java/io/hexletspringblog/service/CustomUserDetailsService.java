@@ -1,20 +1,38 @@
 package io.hexletspringblog.service;
 
+import io.hexletspringblog.component.EntityCacheEvictor;
+import io.hexletspringblog.dto.UserDTO;
+import io.hexletspringblog.mapper.UserMapper;
 import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.util.PageSizes;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsManager {
+public class CustomUserDetailsService implements UserDetailsManager, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserMapper userMapper;
+    private final EntityManager entityManager;
+    private final EntityCacheEvictor cacheEvictor;
+    private final PostService postService;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -42,6 +60,13 @@ public class CustomUserDetailsService implements UserDetailsManager {
         userRepository.save(existingUser);
     }
 
+    // Посты удаляются через PostService в той же транзакции, что и пользователь
+    @Transactional
+    public void deleteById(Long id) {
+        postService.deleteByAuthorId(id);
+        userRepository.deleteById(id);
+    }
+
     @Override
     public void deleteUser(String username) {
         User user = userRepository.findByEmail(username)
@@ -54,8 +79,41 @@ public class CustomUserDetailsService implements UserDetailsManager {
         // Реализация смены пароля
     }
 
+    // Вызывается DaoAuthenticationProvider после успешного входа, если хэш устарел
+    // (другой алгоритм или старый хэш без префикса {id})
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userData, String newPassword) {
+        User user = userRepository.findByEmail(userData.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        user.setPasswordDigest(newPassword);
+        userRepository.save(user);
+        cacheEvictor.evictUser(user.getId());
+        return user;
+    }
+
     @Override
     public boolean userExists(String username) {
         return userRepository.existsByEmail(username);
     }
+
+    @Transactional(readOnly = true)
+    public List<UserDTO> findAll(Long afterId, int size) {
+        PageSizes.check(size);
+        long from = afterId == null ? 0L : afterId;
+        return userRepository.findByIdGreaterThanOrderByIdAsc(from, Limit.of(size)).stream()
+                .map(userMapper::toUserDTO)
+                .toList();
+    }
+
+    // Обработанные пользователи отсоединяются, чтобы persistence context не рос вместе с таблицей
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDTO> consumer) {
+        try (Stream<User> users = userRepository.streamAllByOrderByIdAsc()) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.toUserDTO(user));
+                entityManager.detach(user);
+            });
+        }
+    }
 }
@@ -0,0 +1,251 @@
+package io.hexletspringblog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hexletspringblog.dto.PostCreateDTO;
+import io.hexletspringblog.dto.PostImportResultDTO;
+import io.hexletspringblog.event.PostChangedEvent;
+import io.hexletspringblog.model.Post;
+import io.hexletspringblog.model.Tag;
+import io.hexletspringblog.model.User;
+import io.hexletspringblog.repository.PostRepository;
+import io.hexletspringblog.repository.TagRepository;
+import io.hexletspringblog.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Массовый импорт постов из NDJSON (одна строка - один PostCreateDTO).
+// Строки обрабатываются пачками по chunkSize: авторы, теги и занятые слаги проверяются
+// одним запросом на пачку, вставка идет JDBC-батчами, каждая пачка коммитится отдельно.
+// Поэтому на классе нет @Transactional, а в памяти держится только текущая пачка.
+@Slf4j
+@Service
+public class PostImportService {
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final TagRepository tagRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public PostImportService(PostRepository postRepository,
+                             UserRepository userRepository,
+                             TagRepository tagRepository,
+                             EntityManager entityManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.tagRepository = tagRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // authorId, если задан, заменяет authorId каждой строки
+    public void importPosts(Reader source, Long authorId, Consumer<PostImportResultDTO> results) {
+        Memo memo = new Memo();
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(source);
+        long lineNumber = 0;
+        try {
+            String raw;
+            while ((raw = reader.readLine()) != null) {
+                lineNumber++;
+                if (raw.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(lineNumber, raw));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, authorId, memo).forEach(results);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, authorId, memo).forEach(results);
+        }
+    }
+
+    private List<PostImportResultDTO> importChunk(List<Line> lines, Long authorId, Memo memo) {
+        List<PostImportResultDTO> results = new ArrayList<>(lines.size());
+        List<Parsed> parsed = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            try {
+                PostCreateDTO dto = objectMapper.readValue(line.raw(), PostCreateDTO.class);
+                if (authorId != null) {
+                    dto.setAuthorId(authorId);
+                }
+                String violations = validate(dto);
+                if (violations != null) {
+                    results.add(PostImportResultDTO.failed(line.number(), dto.getSlug(), violations));
+                } else {
+                    parsed.add(new Parsed(line.number(), dto));
+                }
+            } catch (JsonProcessingException e) {
+                results.add(PostImportResultDTO.failed(line.number(), null, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+        }
+
+        memo.resolve(parsed.stream().map(p -> p.dto().getAuthorId()).toList(),
+                memo.authors, memo.missingAuthors, userRepository::findExistingIds);
+        memo.resolve(parsed.stream().flatMap(p -> tagIds(p.dto()).stream()).toList(),
+                memo.tags, memo.missingTags, tagRepository::findExistingIds);
+        List<String> slugs = parsed.stream().map(p -> p.dto().getSlug()).toList();
+        Set<String> takenSlugs = slugs.isEmpty() ? new HashSet<>() : new HashSet<>(postRepository.findExistingSlugs(slugs));
+
+        List<Parsed> accepted = new ArrayList<>(parsed.size());
+        for (Parsed candidate : parsed) {
+            PostCreateDTO dto = candidate.dto();
+            String error = null;
+            if (!memo.authors.contains(dto.getAuthorId())) {
+                error = "User not found with id: " + dto.getAuthorId();
+            } else if (!memo.tags.containsAll(tagIds(dto))) {
+                error = "Tags not found: " + tagIds(dto).stream().filter(memo.missingTags::contains).toList();
+            } else if (!takenSlugs.add(dto.getSlug())) {
+                error = "Post with slug '" + dto.getSlug() + "' already exists";
+            }
+            if (error != null) {
+                results.add(PostImportResultDTO.failed(candidate.line(), dto.getSlug(), error));
+            } else {
+                accepted.add(candidate);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            try {
+                results.addAll(transactionTemplate.execute(status -> insert(accepted)));
+            } catch (DataAccessException | TransactionException | PersistenceException e) {
+                // flush() через EntityManager бросает исключения Hibernate без трансляции в DataAccessException
+                log.warn("Post import chunk rolled back", e);
+                String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                accepted.forEach(p -> results.add(PostImportResultDTO.failed(p.line(), p.dto().getSlug(), message)));
+            }
+        }
+
+        results.sort(Comparator.comparingLong(PostImportResultDTO::getLine));
+        return results;
+    }
+
+    private List<PostImportResultDTO> insert(List<Parsed> accepted) {
+        List<Post> posts = new ArrayList<>(accepted.size());
+        for (Parsed candidate : accepted) {
+            PostCreateDTO dto = candidate.dto();
+            Post post = new Post();
+            post.setSlug(dto.getSlug());
+            post.setTitle(dto.getTitle());
+            post.setContent(dto.getContent());
+            post.setPublished(dto.isPublished());
+            // Существование уже проверено - ссылки без SELECT
+            post.setAuthor(entityManager.getReference(User.class, dto.getAuthorId()));
+            post.setTags(tagIds(dto).stream()
+                    .map(id -> entityManager.getReference(Tag.class, id))
+                    .toList());
+            entityManager.persist(post);
+            posts.add(post);
+        }
+        entityManager.flush();
+
+        Map<Long, Integer> tagCounts = new HashMap<>();
+        accepted.forEach(candidate -> tagIds(candidate.dto()).stream().distinct()
+                .forEach(id -> tagCounts.merge(id, 1, Integer::sum)));
+        tagRepository.adjustPostCounts(tagCounts);
+
+        List<PostImportResultDTO> created = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            eventPublisher.publishEvent(new PostChangedEvent(
+                    PostChangedEvent.Type.CREATED, post.getId(), post.getSlug(), post.getTitle(), post.getContent()));
+            created.add(PostImportResultDTO.created(accepted.get(i).line(), post.getId(), post.getSlug()));
+        }
+        // При open-in-view контекст живет весь запрос - не копим в нем импортированные посты
+        entityManager.clear();
+        return created;
+    }
+
+    private String validate(PostCreateDTO dto) {
+        Set<ConstraintViolation<PostCreateDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static List<Long> tagIds(PostCreateDTO dto) {
+        return dto.getTagIds() == null ? List.of() : dto.getTagIds().stream().filter(Objects::nonNull).toList();
+    }
+
+    private record Line(long number, String raw) {
+    }
+
+    private record Parsed(long line, PostCreateDTO dto) {
+    }
+
+    // Уже проверенные id авторов и тегов на время одного импорта
+    private static final class Memo {
+        private final Set<Long> authors = new HashSet<>();
+        private final Set<Long> missingAuthors = new HashSet<>();
+        private final Set<Long> tags = new HashSet<>();
+        private final Set<Long> missingTags = new HashSet<>();
+
+        void resolve(Collection<Long> ids, Set<Long> known, Set<Long> missing,
+                     Function<Collection<Long>, List<Long>> lookup) {
+            Set<Long> unknown = new HashSet<>();
+            for (Long id : ids) {
+                if (id != null && !known.contains(id) && !missing.contains(id)) {
+                    unknown.add(id);
+                }
+            }
+            if (unknown.isEmpty()) {
+                return;
+            }
+            List<Long> found = lookup.apply(unknown);
+            known.addAll(found);
+            unknown.removeAll(found);
+            missing.addAll(unknown);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package io.hexletspringblog.service;
 
+import io.hexletspringblog.component.PostSlugIndex;
+import io.hexletspringblog.dto.CursorPageDTO;
 import io.hexletspringblog.dto.PostCreateDTO;
 import io.hexletspringblog.dto.PostDTO;
 import io.hexletspringblog.dto.PostParamsDTO;
+import io.hexletspringblog.dto.PostSummaryDTO;
 import io.hexletspringblog.dto.PostUpdateDTO;
+import io.hexletspringblog.event.PostChangedEvent;
 import io.hexletspringblog.exception.ResourceNotFoundException;
 import io.hexletspringblog.mapper.PostMapper;
 import io.hexletspringblog.model.Post;
@@ -12,26 +16,49 @@ import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.PostRepository;
 import io.hexletspringblog.repository.TagRepository;
 import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.search.PostSearchIndex;
 import io.hexletspringblog.specification.PostSpecification;
+import io.hexletspringblog.util.PageSizes;
+import io.hexletspringblog.util.PostCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Transactional
 public class PostService {
 
+    private static final Pattern SLUG_SUFFIX = Pattern.compile("-[1-9][0-9]{0,8}");
+
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final TagRepository tagRepository;
     private final PostMapper postMapper;
     private final PostSpecification postSpecification;
+    private final PostSearchIndex postSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostSlugIndex postSlugIndex;
 
     @Transactional(readOnly = true)
     public Page<PostDTO> findAll(PostParamsDTO params, Pageable pageable) {
@@ -40,9 +67,55 @@ public class PostService {
                 .map(postMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDTO> findSummaries(PostParamsDTO params, Pageable pageable, boolean withExcerpt) {
+        Specification<Post> spec = postSpecification.build(params);
+        return postRepository.findSummaries(spec, pageable, withExcerpt);
+    }
+
+    // Полнотекстовый поиск: порядок и число результатов берутся из индекса, из БД читается только страница
+    @Transactional(readOnly = true)
+    public Page<PostDTO> search(String query, Pageable pageable) {
+        List<Long> hits = postSearchIndex.search(query);
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<Long> pageIds = hits.subList(from, to);
+
+        Map<Long, Post> posts = postRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostDTO> content = pageIds.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
+                .map(postMapper::toDTO)
+                .toList();
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    // Keyset-пагинация: без OFFSET и без COUNT(*), позиция передается курсором
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PostDTO> findAll(PostParamsDTO params, String cursor, int size) {
+        PageSizes.check(size);
+        Specification<Post> spec = postSpecification.build(params);
+        Window<Post> window = postRepository.findBy(spec, query -> query
+                .sortBy(PostCursor.SORT)
+                .limit(size)
+                .scroll(PostCursor.decode(cursor)));
+
+        List<PostDTO> content = window.map(postMapper::toDTO).getContent();
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? PostCursor.encode(window.positionAt(window.size() - 1))
+                : null;
+        return new CursorPageDTO<>(content, size, window.hasNext(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> findLastModified(Long id) {
+        return postRepository.findLastModifiedById(id);
+    }
+
     @Transactional(readOnly = true)
     public PostDTO findById(Long id) {
-        Post post = postRepository.findById(id)
+        Post post = postRepository.findDetailById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + id));
         return postMapper.toDTO(post);
     }
@@ -53,6 +126,7 @@ public class PostService {
 
         Post post = postMapper.toEntity(postCreateDTO);
         post.setAuthor(user);
+        post.setSlug(resolveSlug(postCreateDTO.getSlug()));
 
         // Handle tags if provided
         if (postCreateDTO.getTagIds() != null && !postCreateDTO.getTagIds().isEmpty()) {
@@ -61,6 +135,8 @@ public class PostService {
         }
 
         Post savedPost = postRepository.save(post);
+        tagRepository.adjustPostCounts(countDeltas(List.of(), tagIds(savedPost)));
+        eventPublisher.publishEvent(changedEvent(PostChangedEvent.Type.CREATED, savedPost));
         return postMapper.toDTO(savedPost);
     }
 
@@ -72,11 +148,19 @@ public class PostService {
 
         // Handle tags update if provided
         if (postUpdateDTO.getTagIds() != null && postUpdateDTO.getTagIds().isPresent()) {
+            List<Long> oldTagIds = tagIds(post);
             List<Tag> tags = tagRepository.findAllById(postUpdateDTO.getTagIds().get());
             post.setTags(tags); // Используем безопасный метод
+            Map<Long, Integer> deltas = countDeltas(oldTagIds, tagIds(post));
+            tagRepository.adjustPostCounts(deltas);
+            // Изменение одной коллекции тегов не делает сам пост грязным, и @LastModifiedDate не срабатывает
+            if (deltas.values().stream().anyMatch(delta -> delta != 0)) {
+                post.touch();
+            }
         }
 
         Post updatedPost = postRepository.save(post);
+        eventPublisher.publishEvent(changedEvent(PostChangedEvent.Type.UPDATED, updatedPost));
         return postMapper.toDTO(updatedPost);
     }
 
@@ -84,7 +168,29 @@ public class PostService {
         if (!postRepository.existsById(id)) {
             throw new ResourceNotFoundException("Post not found with id: " + id);
         }
+        tagRepository.adjustPostCounts(countDeltas(tagRepository.findIdsByPostId(id), List.of()));
         postRepository.deleteById(id);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(id));
+    }
+
+    // Удаление всех постов автора перед удалением пользователя: иначе их удалил бы orphanRemoval
+    // без пересчета счетчиков тегов и без событий для кэшей и индексов
+    public void deleteByAuthorId(Long authorId) {
+        List<Long> postIds = postRepository.findIdsByAuthorId(authorId);
+        if (postIds.isEmpty()) {
+            return;
+        }
+        tagRepository.adjustPostCounts(countDeltas(tagRepository.findIdsByPostAuthorId(authorId), List.of()));
+        postRepository.deleteAllById(postIds);
+        postRepository.flush();
+        postIds.forEach(id -> eventPublisher.publishEvent(PostChangedEvent.deleted(id)));
+    }
+
+    // Индекс в памяти: без транзакции, чтобы попадание не занимало соединение из пула
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Long findIdBySlug(String slug) {
+        return postSlugIndex.findId(slug)
+                .orElseThrow(() -> new ResourceNotFoundException("Post not found with slug: " + slug));
     }
 
     @Transactional(readOnly = true)
@@ -104,4 +210,36 @@ public class PostService {
                 .map(postMapper::toDTO)
                 .toList();
     }
+
+    // Занятый слаг получает суффикс после максимального из занятых: post, post-2, post-3...
+    // Все кандидаты читаются одним запросом, а не перебором exists по одному
+    String resolveSlug(String slug) {
+        List<String> taken = postRepository.findSlugsLike(slug, PostSpecification.escapeLike(slug) + "-%");
+        if (!taken.contains(slug)) {
+            return slug;
+        }
+        int max = taken.stream()
+                .map(candidate -> candidate.substring(slug.length()))
+                .filter(suffix -> SLUG_SUFFIX.matcher(suffix).matches())
+                .mapToInt(suffix -> Integer.parseInt(suffix.substring(1)))
+                .max()
+                .orElse(1);
+        return slug + "-" + (max + 1);
+    }
+
+    // +1 для добавленных тегов, -1 для снятых
+    static Map<Long, Integer> countDeltas(Collection<Long> oldTagIds, Collection<Long> newTagIds) {
+        Map<Long, Integer> deltas = new HashMap<>();
+        oldTagIds.forEach(id -> deltas.merge(id, -1, Integer::sum));
+        newTagIds.forEach(id -> deltas.merge(id, 1, Integer::sum));
+        return deltas;
+    }
+
+    private static List<Long> tagIds(Post post) {
+        return post.getTags().stream().map(Tag::getId).distinct().toList();
+    }
+
+    private PostChangedEvent changedEvent(PostChangedEvent.Type type, Post post) {
+        return new PostChangedEvent(type, post.getId(), post.getSlug(), post.getTitle(), post.getContent());
+    }
 }
@@ -1,24 +1,50 @@
 package io.hexletspringblog.service;
 
+import io.hexletspringblog.component.EntityCacheEvictor;
+import io.hexletspringblog.dto.TagBatchResultDTO;
+import io.hexletspringblog.dto.TagBatchUpdateDTO;
 import io.hexletspringblog.dto.TagCreateDTO;
 import io.hexletspringblog.dto.TagDTO;
 import io.hexletspringblog.dto.TagUpdateDTO;
+import io.hexletspringblog.dto.TagUsageDTO;
+import io.hexletspringblog.exception.BadRequestException;
 import io.hexletspringblog.mapper.TagMapper;
 import io.hexletspringblog.model.Tag;
+import io.hexletspringblog.repository.PostRepository;
 import io.hexletspringblog.repository.TagRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("service.method")
 @RequiredArgsConstructor
 @Transactional
 public class TagService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_POPULAR_LIMIT = 100;
+
     private final TagRepository tagRepository;
+    private final PostRepository postRepository;
     private final TagMapper tagMapper;
+    private final EntityCacheEvictor cacheEvictor;
+    private final Validator validator;
 
     @Transactional(readOnly = true)
     public List<TagDTO> findAll() {
@@ -42,6 +68,7 @@ public class TagService {
 
         Tag tag = tagMapper.toTag(tagCreateDTO);
         Tag savedTag = tagRepository.save(tag);
+        cacheEvictor.evictTagList();
         return tagMapper.toTagDTO(savedTag);
     }
 
@@ -57,21 +84,37 @@ public class TagService {
             }
         }
 
+        boolean renamed = tagUpdateDTO.getName() != null && tagUpdateDTO.getName().isPresent()
+                && !tagUpdateDTO.getName().get().equals(tag.getName());
         tagMapper.update(tagUpdateDTO, tag);
         Tag updatedTag = tagRepository.save(tag);
+        if (renamed) {
+            // Имя тега входит в представление постов - их ETag должен измениться
+            postRepository.touchByTagId(id, LocalDateTime.now());
+            cacheEvictor.evictAllPostResponses();
+        }
+        cacheEvictor.evictTagList();
         return tagMapper.toTagDTO(updatedTag);
     }
 
-    public void delete(Long id) {
+    // force = true: тег сначала отвязывается от всех постов, иначе удаление используемого тега запрещено
+    public void delete(Long id, boolean force) {
         Tag tag = tagRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tag not found with id: " + id));
 
-        // Check if tag is used by any posts
-        if (!tag.getPosts().isEmpty()) {
-            throw new IllegalStateException("Cannot delete tag that is associated with posts. First remove the tag from all posts.");
+        // Check if tag is used by any posts (EXISTS-запрос, коллекция tag.posts не загружается)
+        if (postRepository.existsByTagsId(id)) {
+            if (!force) {
+                throw new IllegalStateException("Cannot delete tag that is associated with posts. First remove the tag from all posts.");
+            }
+            // Список тегов постов меняется - обновляем их updated_at до удаления связей
+            postRepository.touchByTagId(id, LocalDateTime.now());
+            tagRepository.detachFromAllPosts(id);
+            cacheEvictor.evictAllPostResponses();
         }
 
         tagRepository.delete(tag);
+        cacheEvictor.evictTagList();
     }
 
     // Bulk operations
@@ -92,18 +135,165 @@ public class TagService {
                 .toList();
 
         List<Tag> savedTags = tagRepository.saveAll(tags);
+        cacheEvictor.evictTagList();
         return savedTags.stream()
                 .map(tagMapper::toTagDTO)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public List<TagUsageDTO> findPopular(int limit) {
+        if (limit < 1 || limit > MAX_POPULAR_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_POPULAR_LIMIT);
+        }
+        return tagRepository.findByOrderByPostCountDescIdAsc(Limit.of(limit)).stream()
+                .map(tagMapper::toTagUsageDTO)
+                .toList();
+    }
+
+    // Пакетные операции с частичным успехом: ошибка одного элемента не отменяет остальные.
+    // Дубликаты и существование проверяются одним IN-запросом на весь пакет.
+    public List<TagBatchResultDTO> createBatch(List<TagCreateDTO> tagCreateDTOs) {
+        checkBatchSize(tagCreateDTOs.size());
+        List<String> names = tagCreateDTOs.stream()
+                .map(TagCreateDTO::getName)
+                .filter(Objects::nonNull)
+                .toList();
+        Set<String> taken = names.isEmpty() ? new HashSet<>() : tagRepository.findByNames(names).stream()
+                .map(Tag::getName)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        TagBatchResultDTO[] results = new TagBatchResultDTO[tagCreateDTOs.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < tagCreateDTOs.size(); i++) {
+            TagCreateDTO dto = tagCreateDTOs.get(i);
+            String error = validate(dto);
+            if (error == null && !taken.add(dto.getName())) {
+                error = "Tag with name '" + dto.getName() + "' already exists";
+            }
+            if (error != null) {
+                results[i] = TagBatchResultDTO.failed(i, null, error);
+            } else {
+                indexes.add(i);
+                tags.add(tagMapper.toTag(dto));
+            }
+        }
+
+        List<Tag> saved = tagRepository.saveAll(tags);
+        for (int i = 0; i < saved.size(); i++) {
+            results[indexes.get(i)] = TagBatchResultDTO.success(
+                    indexes.get(i), TagBatchResultDTO.Status.CREATED, tagMapper.toTagDTO(saved.get(i)));
+        }
+        if (!saved.isEmpty()) {
+            cacheEvictor.evictTagList();
+        }
+        return List.of(results);
+    }
+
+    public List<TagBatchResultDTO> updateBatch(List<TagBatchUpdateDTO> updates) {
+        checkBatchSize(updates.size());
+        Map<Long, Tag> tagsById = tagRepository.findByIdIn(updates.stream()
+                        .map(TagBatchUpdateDTO::getId)
+                        .filter(Objects::nonNull)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Tag::getId, Function.identity()));
+        List<String> names = updates.stream()
+                .map(TagBatchUpdateDTO::getName)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<String, Long> idsByName = names.isEmpty() ? new HashMap<>() : tagRepository.findByNames(names).stream()
+                .collect(Collectors.toMap(Tag::getName, Tag::getId, (a, b) -> a, HashMap::new));
+
+        List<TagBatchResultDTO> results = new ArrayList<>(updates.size());
+        Set<Long> seenIds = new HashSet<>();
+        List<Long> renamed = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            TagBatchUpdateDTO update = updates.get(i);
+            Tag tag = tagsById.get(update.getId());
+            String error = validate(update);
+            if (error == null && tag == null) {
+                error = "Tag not found with id: " + update.getId();
+            } else if (error == null && !seenIds.add(update.getId())) {
+                error = "Tag " + update.getId() + " is listed more than once";
+            } else if (error == null && !Objects.equals(idsByName.getOrDefault(update.getName(), tag.getId()), tag.getId())) {
+                error = "Tag with name '" + update.getName() + "' already exists";
+            }
+            if (error != null) {
+                results.add(TagBatchResultDTO.failed(i, update.getId(), error));
+                continue;
+            }
+            if (!update.getName().equals(tag.getName())) {
+                idsByName.remove(tag.getName());
+                idsByName.put(update.getName(), tag.getId());
+                tag.setName(update.getName());
+                renamed.add(tag.getId());
+            }
+            results.add(TagBatchResultDTO.success(i, TagBatchResultDTO.Status.UPDATED, tagMapper.toTagDTO(tag)));
+        }
+
+        if (!renamed.isEmpty()) {
+            // Изменения уходят одним пакетом UPDATE при flush; имена тегов входят в представление постов
+            postRepository.touchByTagIds(renamed, LocalDateTime.now());
+            cacheEvictor.evictTagList();
+            cacheEvictor.evictAllPostResponses();
+        }
+        return results;
+    }
+
+    public List<TagBatchResultDTO> deleteBatch(List<Long> ids) {
+        checkBatchSize(ids.size());
+        List<Long> requested = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Set<Long> existing = requested.isEmpty() ? Set.of() : new HashSet<>(tagRepository.findExistingIds(requested));
+        Set<Long> inUse = existing.isEmpty() ? Set.of() : new HashSet<>(tagRepository.findIdsInUse(existing));
+
+        List<TagBatchResultDTO> results = new ArrayList<>(ids.size());
+        Set<Long> deletable = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (!existing.contains(id)) {
+                results.add(TagBatchResultDTO.failed(i, id, "Tag not found with id: " + id));
+            } else if (inUse.contains(id)) {
+                results.add(TagBatchResultDTO.failed(i, id, "Cannot delete tag that is associated with posts"));
+            } else {
+                deletable.add(id);
+                results.add(TagBatchResultDTO.deleted(i, id));
+            }
+        }
+
+        if (!deletable.isEmpty()) {
+            tagRepository.deleteByIds(deletable);
+            cacheEvictor.evictTagList();
+        }
+        return results;
+    }
+
     @Transactional(readOnly = true)
     public List<TagDTO> findByIds(List<Long> ids) {
+        checkBatchSize(ids.size());
         return tagRepository.findByIdIn(ids).stream()
                 .map(tagMapper::toTagDTO)
                 .toList();
     }
 
+    private void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch size must not exceed " + MAX_BATCH_SIZE);
+        }
+    }
+
+    private String validate(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
     @Transactional(readOnly = true)
     public List<TagDTO> findByNameContaining(String name) {
         return tagRepository.findByNameContainingIgnoreCase(name).stream()
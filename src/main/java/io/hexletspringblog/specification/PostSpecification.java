@@ -1,26 +1,130 @@
 package io.hexletspringblog.specification;
 
 import io.hexletspringblog.dto.PostParamsDTO;
+import io.hexletspringblog.exception.BadRequestException;
 import io.hexletspringblog.model.Post;
+import io.hexletspringblog.model.Tag;
+import io.hexletspringblog.search.PostSearchIndex;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 
 @Component //Для возможности автоматической инъекции
+@RequiredArgsConstructor
 public class PostSpecification {
+
+    public static final String MATCH_ANY = "any";
+    public static final String MATCH_ALL = "all";
+    public static final int MAX_TAGS = 20;
+    public static final int MAX_NAME_MATCHES = 1000;
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final PostSearchIndex postSearchIndex;
+
     // Генерация спецификации на основе параметров внутри DTO
-    // Для удобства каждый фильтр вынесен в свой метод
+    // Для удобства каждый фильтр вынесен в свой метод.
+    // Все условия сравнивают колонки напрямую (без функций над ними), чтобы работали индексы
     public Specification<Post> build(PostParamsDTO params) {
         return withAuthorId(params.getAuthorId())
-                .and(withCreatedAtGt(params.getCreatedAtGt()));
+                .and(withCreatedAtGt(params.getCreatedAtGt()))
+                .and(withCreatedAtLt(params.getCreatedAtLt()))
+                .and(withPublished(params.getPublished()))
+                .and(withTitleStartsWith(params.getTitleStartsWith()))
+                .and(withTags(params.getTags(), isMatchAll(params.getMatch())))
+                .and(withNameCont(params.getNameCont()));
     }
 
     private Specification<Post> withAuthorId(Long authorId) {
         return (root, query, cb) -> authorId == null ? cb.conjunction() : cb.equal(root.get("author").get("id"), authorId);
     }
 
+    // Вместо LIKE '%x%' - выборка по первичному ключу из поискового индекса.
+    // Список id уходит в IN как параметры, поэтому слишком общий запрос отклоняется
+    private Specification<Post> withNameCont(String nameCont) {
+        return (root, query, cb) -> {
+            if (nameCont == null || nameCont.isBlank()) {
+                return cb.conjunction();
+            }
+            Set<Long> ids = postSearchIndex.findMatchingIds(nameCont);
+            if (ids.size() > MAX_NAME_MATCHES) {
+                throw new BadRequestException("nameCont matches more than " + MAX_NAME_MATCHES
+                        + " posts, refine the query or use /api/posts/search");
+            }
+            return ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+        };
+    }
+
+    // createdAt хранится как LocalDateTime: "после даты" - начиная со следующих суток
     private Specification<Post> withCreatedAtGt(LocalDate date) {
-        return (root, query, cb) -> date == null ? cb.conjunction() : cb.greaterThan(root.get("createdAt"), date);
+        return (root, query, cb) -> date == null
+                ? cb.conjunction()
+                : cb.greaterThanOrEqualTo(root.get("createdAt"), date.plusDays(1).atStartOfDay());
+    }
+
+    private Specification<Post> withCreatedAtLt(LocalDate date) {
+        return (root, query, cb) -> date == null
+                ? cb.conjunction()
+                : cb.lessThan(root.get("createdAt"), date.atStartOfDay());
+    }
+
+    private Specification<Post> withPublished(Boolean published) {
+        return (root, query, cb) -> published == null ? cb.conjunction() : cb.equal(root.get("published"), published);
+    }
+
+    // Префикс без LOWER(): LIKE 'x%' может использовать индекс по title
+    private Specification<Post> withTitleStartsWith(String prefix) {
+        return (root, query, cb) -> prefix == null || prefix.isEmpty()
+                ? cb.conjunction()
+                : cb.like(root.get("title"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    // Полусоединение через post_tag(tag_id, post_id): без JOIN по основному запросу и без дублей.
+    // match=all - пост должен иметь все перечисленные теги (GROUP BY / HAVING COUNT)
+    private Specification<Post> withTags(List<Long> tagIds, boolean matchAll) {
+        return (root, query, cb) -> {
+            if (tagIds == null || tagIds.isEmpty()) {
+                return cb.conjunction();
+            }
+            Set<Long> distinctIds = Set.copyOf(tagIds);
+            if (distinctIds.size() > MAX_TAGS) {
+                throw new BadRequestException("At most " + MAX_TAGS + " tags can be combined in a filter");
+            }
+
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Post> tagged = subquery.from(Post.class);
+            Join<Post, Tag> tag = tagged.join("tags");
+            subquery.select(tagged.get("id"))
+                    .where(tag.get("id").in(distinctIds));
+            if (matchAll) {
+                subquery.groupBy(tagged.get("id"))
+                        .having(cb.equal(cb.countDistinct(tag.get("id")), (long) distinctIds.size()));
+            }
+            return root.get("id").in(subquery);
+        };
+    }
+
+    private boolean isMatchAll(String match) {
+        if (match == null || match.isBlank() || MATCH_ANY.equalsIgnoreCase(match)) {
+            return false;
+        }
+        if (MATCH_ALL.equalsIgnoreCase(match)) {
+            return true;
+        }
+        throw new BadRequestException("Unsupported match value: " + match + " (expected 'any' or 'all')");
+    }
+
+    // Экранирование для LIKE ... ESCAPE '\'
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
     }
 }
@@ -0,0 +1,23 @@
+package io.hexletspringblog.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Валидаторы для условных запросов (If-None-Match / If-Modified-Since)
+public final class HttpValidators {
+
+    private HttpValidators() {
+    }
+
+    // Сильный ETag: представление однозначно задается id и временем последнего изменения
+    public static String etag(Long id, LocalDateTime updatedAt) {
+        Instant instant = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        long micros = instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+        return "\"" + id + "-" + micros + "\"";
+    }
+
+    public static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -2,8 +2,12 @@ package io.hexletspringblog.util;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import io.hexletspringblog.model.User;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -12,17 +16,34 @@ import org.springframework.stereotype.Component;
 @Component
 public class JWTUtils {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+
     @Autowired
     private JwtEncoder encoder;
 
     public String generateToken(String username) {
+        return this.encoder.encode(JwtEncoderParameters.from(claims(username).build())).getTokenValue();
+    }
+
+    // id и роли в токене позволяют определить текущего пользователя без запроса в БД
+    public String generateToken(User user) {
+        List<String> roles = user.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtClaimsSet claims = claims(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, roles)
+                .build();
+        return this.encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    private static JwtClaimsSet.Builder claims(String username) {
         Instant now = Instant.now();
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        return JwtClaimsSet.builder()
                 .issuer("self")
                 .issuedAt(now)
                 .expiresAt(now.plus(1, ChronoUnit.HOURS))
-                .subject(username)
-                .build();
-        return this.encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+                .subject(username);
     }
 }
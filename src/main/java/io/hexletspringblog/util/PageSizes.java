@@ -0,0 +1,18 @@
+package io.hexletspringblog.util;
+
+import io.hexletspringblog.exception.BadRequestException;
+
+// Общий предел размера страницы для всех списков: стоимость страницы должна расти с ее размером, а не с таблицей
+public final class PageSizes {
+
+    public static final int MAX = 100;
+
+    private PageSizes() {
+    }
+
+    public static void check(int size) {
+        if (size < 1 || size > MAX) {
+            throw new BadRequestException("Size must be between 1 and " + MAX);
+        }
+    }
+}
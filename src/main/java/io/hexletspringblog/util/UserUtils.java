@@ -2,6 +2,7 @@ package io.hexletspringblog.util;
 
 import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -21,6 +22,19 @@ public class UserUtils {
         return userRepository.findByEmail(email).orElse(null);
     }
 
+    // Id берется из claims токена; к БД обращаемся только для токенов без uid
+    public Long getCurrentUserId() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.id() != null) {
+            return user.id();
+        }
+        User user = getCurrentUser();
+        return user != null ? user.getId() : null;
+    }
+
     public String getCurrentUserEmail() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication != null ? authentication.getName() : null;
@@ -0,0 +1,44 @@
+-- Исходная схема (как ее создавал Hibernate до перехода на миграции).
+-- Для существующих баз помечается как baseline и не выполняется.
+CREATE TABLE users (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name      VARCHAR(30)  NOT NULL,
+    last_name       VARCHAR(30)  NOT NULL,
+    email           VARCHAR(255) UNIQUE,
+    birthday        DATE,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    password_digest VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE posts (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT,
+    slug       VARCHAR(255) NOT NULL UNIQUE,
+    title      VARCHAR(100) NOT NULL,
+    content    VARCHAR(255) NOT NULL,
+    published  BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT fk_posts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE tags (
+    id   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE comments (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    post_id    BIGINT,
+    body       VARCHAR(255),
+    created_at DATE,
+    CONSTRAINT fk_comments_post FOREIGN KEY (post_id) REFERENCES posts (id)
+);
+
+CREATE TABLE post_tag (
+    post_id BIGINT NOT NULL,
+    tag_id  BIGINT NOT NULL,
+    CONSTRAINT fk_post_tag_post FOREIGN KEY (post_id) REFERENCES posts (id),
+    CONSTRAINT fk_post_tag_tag FOREIGN KEY (tag_id) REFERENCES tags (id)
+);
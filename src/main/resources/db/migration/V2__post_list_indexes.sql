@@ -0,0 +1,8 @@
+-- Keyset-пагинация постов и комментариев
+CREATE INDEX IF NOT EXISTS idx_posts_created_at_id ON posts (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comments_post_id_id ON comments (post_id, id);
+
+-- Фильтры PostSpecification: автор + дата, опубликованность + дата, теги
+CREATE INDEX IF NOT EXISTS idx_posts_user_id_created_at ON posts (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_posts_published_created_at ON posts (published, created_at);
+CREATE INDEX IF NOT EXISTS idx_post_tag_tag_id_post_id ON post_tag (tag_id, post_id);
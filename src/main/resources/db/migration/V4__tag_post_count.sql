@@ -0,0 +1,7 @@
+-- Денормализованное число постов у тега: поддерживается сервисами, здесь заполняется по post_tag
+ALTER TABLE tags ADD COLUMN post_count INTEGER DEFAULT 0 NOT NULL;
+
+UPDATE tags SET post_count = (SELECT COUNT(*) FROM post_tag pt WHERE pt.tag_id = tags.id);
+
+-- Популярные теги: top-N читается из начала индекса
+CREATE INDEX IF NOT EXISTS idx_tags_post_count_id ON tags (post_count DESC, id);
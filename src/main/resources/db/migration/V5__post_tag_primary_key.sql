@@ -0,0 +1,10 @@
+-- post_tag отображается как Set: пара (post_id, tag_id) уникальна, Hibernate удаляет строки по ней
+CREATE TABLE post_tag_distinct AS SELECT DISTINCT post_id, tag_id FROM post_tag;
+DELETE FROM post_tag;
+INSERT INTO post_tag (post_id, tag_id) SELECT post_id, tag_id FROM post_tag_distinct;
+DROP TABLE post_tag_distinct;
+
+ALTER TABLE post_tag ADD CONSTRAINT pk_post_tag PRIMARY KEY (post_id, tag_id);
+
+-- Счетчики из V4 могли учесть дубли
+UPDATE tags SET post_count = (SELECT COUNT(*) FROM post_tag pt WHERE pt.tag_id = tags.id);
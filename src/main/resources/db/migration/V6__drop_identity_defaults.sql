@@ -0,0 +1,7 @@
+-- id выдают последовательности из V3. Счетчик IDENTITY о них не знает и при вставке без id
+-- выдал бы значение, которое Hibernate уже занял или займет из своего блока, - такие вставки
+-- теперь падают на NOT NULL, а не на конфликте ключа позже. Ручные вставки указывают id явно.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE posts ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
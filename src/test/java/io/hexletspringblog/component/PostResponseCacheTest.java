@@ -0,0 +1,64 @@
+package io.hexletspringblog.component;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostResponseCacheTest {
+
+    private static final PostResponseCache.Entry ENTRY =
+            new PostResponseCache.Entry(new byte[]{'{', '}'}, "application/json", Map.of());
+
+    private PostResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PostResponseCache(1024 * 1024, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void evictPost_ShouldDropPostAndListPagesOnly() {
+        PostResponseCache.Key post1 = new PostResponseCache.Key(1L, "/api/posts/1");
+        PostResponseCache.Key post1Slug = new PostResponseCache.Key(1L, "/api/posts/by-slug/first");
+        PostResponseCache.Key post2 = new PostResponseCache.Key(2L, "/api/posts/2");
+        PostResponseCache.Key page = new PostResponseCache.Key(null, "/api/posts?page=0");
+        for (PostResponseCache.Key key : new PostResponseCache.Key[]{post1, post1Slug, post2, page}) {
+            cache.put(key, ENTRY, cache.generation());
+        }
+
+        cache.evictPost(1L);
+
+        assertThat(cache.get(post1)).isNull();
+        assertThat(cache.get(post1Slug)).isNull();
+        assertThat(cache.get(page)).isNull();
+        assertThat(cache.get(post2)).isEqualTo(ENTRY);
+    }
+
+    @Test
+    void put_ShouldSkipResponseComputedBeforeEviction() {
+        PostResponseCache.Key key = new PostResponseCache.Key(1L, "/api/posts/1");
+        long generation = cache.generation();
+
+        cache.evictPost(1L);
+        cache.put(key, ENTRY, generation);
+
+        assertThat(cache.get(key)).isNull();
+    }
+
+    @Test
+    void evictPost_ShouldDropEntriesCachedAgainAfterEviction() {
+        PostResponseCache.Key key = new PostResponseCache.Key(1L, "/api/posts/1");
+        cache.put(key, ENTRY, cache.generation());
+        cache.evictPost(1L);
+
+        cache.put(key, ENTRY, cache.generation());
+        assertThat(cache.get(key)).isEqualTo(ENTRY);
+
+        cache.evictPost(1L);
+        assertThat(cache.get(key)).isNull();
+    }
+}
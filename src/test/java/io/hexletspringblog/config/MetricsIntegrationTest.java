@@ -0,0 +1,127 @@
+package io.hexletspringblog.config;
+
+import io.hexletspringblog.component.PostResponseCache;
+import io.hexletspringblog.model.Post;
+import io.hexletspringblog.model.User;
+import io.hexletspringblog.repository.PostRepository;
+import io.hexletspringblog.repository.TagRepository;
+import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.util.TestDataFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostResponseCache postResponseCache;
+
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        postRepository.deleteAll();
+        tagRepository.deleteAll();
+        userRepository.deleteAll();
+        postResponseCache.evictAll();
+
+        User user = new User();
+        user.setFirstName("Metrics");
+        user.setLastName("User");
+        user.setEmail("metrics@example.com");
+        user.setPasswordDigest("not-used");
+        user = userRepository.save(user);
+        post = postRepository.save(TestDataFactory.createTestPost(user, "Metrics post", "metrics-post"));
+    }
+
+    @Test
+    void httpRequests_shouldBeTaggedByRouteTemplate_includingResponseCacheHits() throws Exception {
+        long before = count(httpRequests("/api/posts/{id}"));
+        long unknownBefore = count(httpRequests("UNKNOWN"));
+
+        // Второй запрос отдается из кэша ответов, не доходя до контроллера;
+        // шаблон маршрута к этому моменту уже найден при сопоставлении правил Spring Security
+        mockMvc.perform(get("/api/posts/" + post.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/posts/" + post.getId())).andExpect(status().isOk());
+
+        assertThat(count(httpRequests("/api/posts/{id}"))).isEqualTo(before + 2);
+        assertThat(count(httpRequests("UNKNOWN"))).isEqualTo(unknownBefore);
+    }
+
+    @Test
+    void serviceMethods_shouldBeTimed() throws Exception {
+        long before = count(meterRegistry.find("service.method")
+                .tag("class", "io.hexletspringblog.service.PostService")
+                .tag("method", "findById")
+                .timer());
+
+        mockMvc.perform(get("/api/posts/" + post.getId())).andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get("service.method")
+                .tag("class", "io.hexletspringblog.service.PostService")
+                .tag("method", "findById")
+                .tag("exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    @WithMockUser
+    void prometheusEndpoint_shouldExposeServiceHibernateAndPoolMetrics() throws Exception {
+        mockMvc.perform(get("/api/posts/" + post.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/posts")).andExpect(status().isOk());
+
+        String body = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body)
+                .contains("service_method_seconds_count{")
+                .contains("uri=\"/api/posts/{id}\"")
+                .contains("hibernate_statements_total")
+                .contains("hibernate_entities_loads_total")
+                .contains("hibernate_collections_fetches_total")
+                .contains("hibernate_second_level_cache_requests_total")
+                .contains("hibernate_query_execution_total_seconds_count{")
+                .contains("hikaricp_connections_active");
+    }
+
+    private Timer httpRequests(String uri) {
+        return meterRegistry.find("http.server.requests").tag("uri", uri).timer();
+    }
+
+    private static long count(Timer timer) {
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -1,5 +1,6 @@
 package io.hexletspringblog.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -8,12 +9,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hexletspringblog.dto.AuthRequest;
 import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.util.JWTUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -31,6 +36,9 @@ class AuthenticationControllerTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
     @Test
     void login_withValidCredentials_returnsToken() throws Exception {
         // Создание тестового пользователя с заполненными обязательными полями
@@ -51,4 +59,62 @@ class AuthenticationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isString()); // Токен возвращается как строка, не как JSON объект
     }
+
+    @Test
+    void login_withLegacyHash_rehashesPassword() throws Exception {
+        User user = new User();
+        user.setEmail("legacy@example.com");
+        user.setPasswordDigest(new BCryptPasswordEncoder(4).encode("password")); // хэш без префикса {bcrypt}
+        user.setFirstName("Jack");
+        user.setLastName("Doe");
+        userRepository.save(user);
+
+        AuthRequest authRequest = new AuthRequest();
+        authRequest.setUsername("legacy@example.com");
+        authRequest.setPassword("password");
+
+        mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(authRequest)))
+                .andExpect(status().isOk());
+
+        String digest = userRepository.findById(user.getId()).orElseThrow().getPasswordDigest();
+        assertThat(digest).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("password", digest)).isTrue();
+    }
+
+    @Test
+    void login_tokenCarriesUserId_andPostIsCreatedForThatUser() throws Exception {
+        User user = new User();
+        user.setEmail("claims@example.com");
+        user.setPasswordDigest(passwordEncoder.encode("password"));
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        userRepository.save(user);
+
+        AuthRequest authRequest = new AuthRequest();
+        authRequest.setUsername("claims@example.com");
+        authRequest.setPassword("password");
+
+        String token = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(authRequest)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Jwt jwt = jwtDecoder.decode(token);
+        assertThat(jwt.getSubject()).isEqualTo("claims@example.com");
+        assertThat(((Number) jwt.getClaim(JWTUtils.USER_ID_CLAIM)).longValue()).isEqualTo(user.getId());
+
+        // authorId из тела заменяется id из токена
+        String body = """
+                {"authorId": -1, "slug": "claims-post", "title": "Claims post", "content": "Post created with claims"}
+                """;
+        mockMvc.perform(post("/api/posts")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.authorId").value(user.getId()));
+    }
 }
\ No newline at end of file
@@ -86,6 +86,14 @@ class CommentControllerTest {
         assertThatJson(body).isArray().hasSize(2);
     }
 
+    @Test
+    void testIndexWithSizeOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/comments").param("size", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/comments").param("size", "100000000"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testShow() throws Exception {
         Comment comment = generateComment(testPost);
@@ -284,6 +292,55 @@ class CommentControllerTest {
         assertThatJson(body).isArray().hasSize(2);
     }
 
+    @Test
+    void testExport() throws Exception {
+        Comment comment1 = generateComment(testPost);
+        Comment comment2 = generateComment(testPost);
+        commentRepository.save(comment1);
+        commentRepository.save(comment2);
+
+        var result = mockMvc.perform(get("/api/comments/export"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+        assertThat(lines).hasSize(2);
+        assertThatJson(lines.get(0)).node("id").isEqualTo(comment1.getId());
+        assertThatJson(lines.get(1)).node("postId").isEqualTo(testPost.getId());
+    }
+
+    @Test
+    void testGetCommentsByPost_WithCursor() throws Exception {
+        Comment comment1 = generateComment(testPost);
+        Comment comment2 = generateComment(testPost);
+        Comment comment3 = generateComment(testPost);
+        commentRepository.save(comment1);
+        commentRepository.save(comment2);
+        commentRepository.save(comment3);
+
+        mockMvc.perform(get("/api/comments/post/" + testPost.getId()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(comment1.getId()))
+                .andExpect(jsonPath("$[1].id").value(comment2.getId()));
+
+        mockMvc.perform(get("/api/comments/post/" + testPost.getId())
+                        .param("afterId", comment2.getId().toString())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(comment3.getId()));
+    }
+
+    @Test
+    void testGetCommentsByPost_WithSizeOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/comments/post/" + testPost.getId()).param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/comments/post/" + testPost.getId()).param("size", "100000000"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetCommentsByPost_NotFound() throws Exception {
         mockMvc.perform(get("/api/comments/post/999"))
@@ -1,18 +1,26 @@
 package io.hexletspringblog.controller;
 
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hexletspringblog.component.PostResponseCache;
+import io.hexletspringblog.component.PostSlugIndex;
+import io.hexletspringblog.dto.CommentDTO;
 import io.hexletspringblog.dto.PostCreateDTO;
+import io.hexletspringblog.model.Comment;
 import io.hexletspringblog.model.Post;
 import io.hexletspringblog.model.User;
 import io.hexletspringblog.model.Tag;
 import io.hexletspringblog.repository.PostRepository;
 import io.hexletspringblog.repository.UserRepository;
 import io.hexletspringblog.repository.TagRepository;
+import io.hexletspringblog.search.PostSearchIndex;
+import io.hexletspringblog.service.CommentService;
+import io.hexletspringblog.specification.PostSpecification;
 import org.instancio.Instancio;
 import org.instancio.Select;
 import org.junit.jupiter.api.BeforeEach;
@@ -22,6 +30,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -47,11 +56,26 @@ class PostControllerTest {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostResponseCache postResponseCache;
+
+    @Autowired
+    private PostSlugIndex postSlugIndex;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
     @BeforeEach
     void setUp() {
         postRepository.deleteAll();
         tagRepository.deleteAll(); // Clear tags first
         userRepository.deleteAll();
+        // Прямые изменения через репозитории кэш ответов не видит
+        postResponseCache.evictAll();
+        postSlugIndex.clear();
 
         om.registerModule(new JsonNullableModule());
     }
@@ -128,6 +152,203 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.number").value(0));
     }
 
+    @Test
+    void index_filtersByTagsWithAnyAndAllMatch() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        Tag java = tagRepository.save(generateTag("java"));
+        Tag spring = tagRepository.save(generateTag("spring"));
+
+        Post both = generatePost(user);
+        both.setSlug("tagged-both");
+        both.getTags().addAll(List.of(java, spring));
+        postRepository.save(both);
+        Post onlyJava = generatePost(user);
+        onlyJava.setSlug("tagged-onlyJava");
+        onlyJava.getTags().add(java);
+        postRepository.save(onlyJava);
+        Post onlySpring = generatePost(user);
+        onlySpring.setSlug("tagged-onlySpring");
+        onlySpring.getTags().add(spring);
+        postRepository.save(onlySpring);
+
+        String tags = java.getId() + "," + spring.getId();
+
+        // Пост с обоими тегами считается один раз и на странице, и в total
+        mockMvc.perform(get("/api/posts").param("tags", tags).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(3));
+
+        mockMvc.perform(get("/api/posts").param("tags", tags).param("match", "all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].slug").value(both.getSlug()));
+
+        mockMvc.perform(get("/api/posts").param("tags", tags).param("match", "every"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void search_returnsPostsRankedByRelevance() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+
+        PostCreateDTO relevant = generatePostCreateDTO();
+        relevant.setAuthorId(user.getId());
+        relevant.setSlug("search-relevant");
+        relevant.setTitle("Kotlin coroutines");
+        relevant.setContent("Structured concurrency with kotlin coroutines");
+        PostCreateDTO other = generatePostCreateDTO();
+        other.setAuthorId(user.getId());
+        other.setSlug("search-other");
+        other.setTitle("Java threads");
+        other.setContent("Compared to kotlin, threads are heavier");
+
+        for (PostCreateDTO dto : List.of(other, relevant)) {
+            mockMvc.perform(post("/api/posts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/posts/search").param("q", "kotlin coroutines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].slug").value("search-relevant"))
+                .andExpect(jsonPath("$.content[1].slug").value("search-other"));
+
+        mockMvc.perform(get("/api/posts").param("q", "coroutines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+
+        mockMvc.perform(get("/api/posts").param("nameCont", "java threads"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].slug").value("search-other"));
+    }
+
+    @Test
+    void search_withFiltersCursorViewOrBadSize_returns400() throws Exception {
+        mockMvc.perform(get("/api/posts").param("q", "java").param("authorId", "1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("q", "java").param("published", "true"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("q", "java").param("tags", "1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("q", "java").param("cursor", ""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("q", "java").param("view", "summary"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("q", "java").param("size", "1000000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts/search").param("q", "java").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void nameCont_matchingTooManyPosts_returns400() throws Exception {
+        // Индекс наполняется напрямую: создавать тысячу постов ради проверки лимита незачем
+        long base = 1_000_000L;
+        for (long id = base; id <= base + PostSpecification.MAX_NAME_MATCHES; id++) {
+            postSearchIndex.put(id, "common word", "");
+        }
+        try {
+            mockMvc.perform(get("/api/posts").param("nameCont", "common"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/api/posts").param("nameCont", "common word " + base))
+                    .andExpect(status().isOk());
+        } finally {
+            for (long id = base; id <= base + PostSpecification.MAX_NAME_MATCHES; id++) {
+                postSearchIndex.remove(id);
+            }
+        }
+    }
+
+    @Test
+    void summaries_returnProjectionWithoutContent() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+
+        Tag tag = generateTag("java");
+        tagRepository.save(tag);
+
+        Post post = generatePost(user);
+        post.getTags().add(tag);
+        Comment comment = new Comment();
+        comment.setBody("First!");
+        post.addComment(comment);
+        postRepository.save(post);
+
+        mockMvc.perform(get("/api/posts")
+                        .param("view", "summary")
+                        .param("excerpt", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].title").value(post.getTitle()))
+                .andExpect(jsonPath("$.content[0].authorId").value(user.getId()))
+                .andExpect(jsonPath("$.content[0].tagNames[0]").value("java"))
+                .andExpect(jsonPath("$.content[0].commentCount").value(1))
+                .andExpect(jsonPath("$.content[0].excerpt").value(post.getContent()))
+                .andExpect(jsonPath("$.content[0].content").doesNotExist())
+                .andExpect(jsonPath("$.content[0].comments").doesNotExist());
+    }
+
+    @Test
+    void summaries_withSizeOutOfRange_returns400() throws Exception {
+        mockMvc.perform(get("/api/posts").param("view", "summary").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("view", "summary").param("size", "100000000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scroll_returnsPagesByCursor() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+
+        for (int i = 0; i < 3; i++) {
+            Post post = generatePost(user);
+            post.setSlug("cursor-slug-" + i);
+            postRepository.save(post);
+        }
+
+        var first = mockMvc.perform(get("/api/posts")
+                        .param("cursor", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn();
+
+        String nextCursor = om.readTree(first.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/posts")
+                        .param("cursor", nextCursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    void scroll_withInvalidCursor_returns400() throws Exception {
+        mockMvc.perform(get("/api/posts").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scroll_withSizeOutOfRange_returns400() throws Exception {
+        mockMvc.perform(get("/api/posts").param("cursor", "").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("cursor", "").param("size", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts").param("cursor", "").param("size", "100000000"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testCreatePost() throws Exception {
         // First create a user
@@ -148,6 +369,40 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.content").value(postCreateDTO.getContent()));
     }
 
+    @Test
+    void createPost_withTakenSlug_getsNextFreeSuffix_andIsServedBySlug() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+
+        PostCreateDTO dto = generatePostCreateDTO();
+        dto.setAuthorId(user.getId());
+        dto.setSlug("same-slug");
+        for (String expected : List.of("same-slug", "same-slug-2", "same-slug-3")) {
+            mockMvc.perform(post("/api/posts")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(om.writeValueAsString(dto)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.slug").value(expected));
+        }
+
+        Post third = postRepository.findBySlug("same-slug-3").orElseThrow();
+        mockMvc.perform(get("/api/posts/by-slug/{slug}", "same-slug-3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(third.getId()))
+                .andExpect(header().exists("ETag"));
+
+        mockMvc.perform(put("/api/posts/{id}", third.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"slug\": \"renamed-slug\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/posts/by-slug/{slug}", "renamed-slug"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(third.getId()));
+        mockMvc.perform(get("/api/posts/by-slug/{slug}", "same-slug-3"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testShowPost() throws Exception {
         // First create a user
@@ -164,6 +419,218 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.content").value(post.getContent()));
     }
 
+    @Test
+    void showPost_withMatchingEtag_returns304UntilCommentIsAdded() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        Post post = generatePost(user);
+        postRepository.save(post);
+
+        String etag = mockMvc.perform(get("/api/posts/" + post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("\"");
+
+        mockMvc.perform(get("/api/posts/" + post.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        CommentDTO comment = new CommentDTO();
+        comment.setPostId(post.getId());
+        comment.setBody("New comment");
+        commentService.create(comment);
+
+        String newEtag = mockMvc.perform(get("/api/posts/" + post.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].body").value("New comment"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(newEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void showPost_tagOnlyUpdate_changesEtag() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        Tag tag = tagRepository.save(generateTag("etag-tag"));
+        Post post = generatePost(user);
+        postRepository.save(post);
+
+        // Новый пост без updatedAt: валидатор берется из createdAt, как и при проверке If-None-Match
+        String etag = mockMvc.perform(get("/api/posts/" + post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+        mockMvc.perform(get("/api/posts/" + post.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/posts/" + post.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tagIds\": [" + tag.getId() + "]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/posts/" + post.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags[0].id").value(tag.getId()));
+    }
+
+    @Test
+    void index_returnsWeakEtagAndNotModified() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        postRepository.save(generatePost(user));
+
+        String etag = mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).startsWith("W/");
+
+        mockMvc.perform(get("/api/posts").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void index_conditionalRequestIsAnsweredFromResponseCache() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        Post post = postRepository.save(generatePost(user));
+
+        String etag = mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Прямое изменение через репозиторий кэш не видит: 304 значит, что запрос не дошел до контроллера
+        Post changed = postRepository.findById(post.getId()).orElseThrow();
+        changed.setTitle("Changed behind the cache");
+        postRepository.save(changed);
+
+        mockMvc.perform(get("/api/posts").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void showPost_anonymousReadIsCachedUntilPostIsUpdated() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        Post post = generatePost(user);
+        post.setTitle("Cached title");
+        postRepository.save(post);
+
+        mockMvc.perform(get("/api/posts/" + post.getId()))
+                .andExpect(jsonPath("$.title").value("Cached title"));
+
+        // Изменение в обход сервиса: ответ по-прежнему берется из кэша
+        Post changed = postRepository.findById(post.getId()).orElseThrow();
+        changed.setTitle("Changed directly");
+        postRepository.save(changed);
+        mockMvc.perform(get("/api/posts/" + post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Cached title"));
+        assertThat(postResponseCache.bytesHeld()).isPositive();
+
+        PostCreateDTO updates = generatePostCreateDTO();
+        updates.setTitle("Updated title");
+        updates.setAuthorId(user.getId());
+        mockMvc.perform(put("/api/posts/" + post.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(updates)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/posts/" + post.getId()))
+                .andExpect(jsonPath("$.title").value("Updated title"));
+    }
+
+    @Test
+    @WithMockUser
+    void showPost_authenticatedReadBypassesCache() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        Post post = generatePost(user);
+        post.setTitle("First title");
+        postRepository.save(post);
+
+        mockMvc.perform(get("/api/posts/" + post.getId()));
+        Post changed = postRepository.findById(post.getId()).orElseThrow();
+        changed.setTitle("Second title");
+        postRepository.save(changed);
+
+        mockMvc.perform(get("/api/posts/" + post.getId()))
+                .andExpect(jsonPath("$.title").value("Second title"));
+        assertThat(postResponseCache.bytesHeld()).isZero();
+    }
+
+    @Test
+    @WithMockUser
+    void importPosts_reportsResultPerLine() throws Exception {
+        User user = generateUser();
+        userRepository.save(user);
+        Tag tag = tagRepository.save(generateTag("imported"));
+        Post existing = generatePost(user);
+        existing.setSlug("taken-slug");
+        postRepository.save(existing);
+
+        String body = String.join("\n",
+                importLine(user.getId(), "imported-1", "[" + tag.getId() + "]"),
+                importLine(user.getId(), "taken-slug", "[]"),
+                "",
+                importLine(-1L, "unknown-author", "[]"),
+                "{not json",
+                importLine(user.getId(), "imported-1", "[]"),
+                importLine(user.getId(), "imported-2", "[]"));
+
+        String response = mockMvc.perform(post("/api/posts/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = response.lines().toList();
+        assertThat(lines).hasSize(6);
+        assertThatJson(lines.get(0)).isObject().containsEntry("line", 1).containsEntry("status", "CREATED");
+        assertThatJson(lines.get(1)).isObject().containsEntry("line", 2).containsEntry("status", "FAILED");
+        assertThatJson(lines.get(2)).isObject().containsEntry("line", 4).containsEntry("status", "FAILED");
+        assertThatJson(lines.get(3)).isObject().containsEntry("line", 5).containsEntry("status", "FAILED");
+        assertThatJson(lines.get(4)).isObject().containsEntry("line", 6).containsEntry("status", "FAILED");
+        assertThatJson(lines.get(5)).isObject().containsEntry("line", 7).containsEntry("status", "CREATED");
+
+        Post imported = postRepository.findByIdWithTags(
+                postRepository.findBySlug("imported-1").orElseThrow().getId()).orElseThrow();
+        assertThat(imported.getTags()).extracting(Tag::getName).containsExactly("imported");
+        assertThat(postRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void importPosts_assignsPostsToCurrentUser() throws Exception {
+        User caller = userRepository.save(generateUser());
+        User other = generateUser();
+        other.setEmail("other-author@example.com");
+        userRepository.save(other);
+
+        mockMvc.perform(post("/api/posts/import")
+                        .with(user(caller.getEmail()))
+                        .contentType("application/x-ndjson")
+                        .content(importLine(other.getId(), "foreign-author", "[]")))
+                .andExpect(status().isOk());
+
+        Post imported = postRepository.findBySlug("foreign-author").orElseThrow();
+        assertThat(imported.getAuthor().getId()).isEqualTo(caller.getId());
+    }
+
+    @Test
+    void importPosts_requiresAuthentication() throws Exception {
+        mockMvc.perform(post("/api/posts/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String importLine(Long authorId, String slug, String tagIds) {
+        return """
+                {"authorId": %d, "slug": "%s", "title": "Imported %s", "content": "Imported post content", "tagIds": %s}"""
+                .formatted(authorId, slug, slug, tagIds);
+    }
+
     @Test
     void testUpdatePost() throws Exception {
         // First create a user
@@ -2,9 +2,13 @@ package io.hexletspringblog.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hexletspringblog.dto.TagCreateDTO;
+import io.hexletspringblog.dto.TagDTO;
 import io.hexletspringblog.model.Tag;
 import io.hexletspringblog.repository.TagRepository;
 import io.hexletspringblog.service.TagService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.instancio.Instancio;
 import org.instancio.Select;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,10 +18,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.hamcrest.Matchers.*;
@@ -42,12 +49,56 @@ class TagControllerTest {
     @Autowired
     private TagService tagService;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @BeforeEach
     void setUp() {
         tagRepository.deleteAll();
         objectMapper.registerModule(new JsonNullableModule());
     }
 
+    @Test
+    void getAllTags_shouldBeServedFromCacheAndEvictedOnCreate() throws Exception {
+        tagRepository.saveAll(List.of(generateTag("cached-1"), generateTag("cached-2")));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        tagService.findAll();
+        statistics.clear();
+        List<TagDTO> cached = tagService.findAll();
+
+        assertEquals(2, cached.size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        TagCreateDTO createDTO = new TagCreateDTO();
+        createDTO.setName("cached-3");
+        tagService.create(createDTO);
+
+        assertEquals(3, tagService.findAll().size());
+    }
+
+    @Test
+    void createBulk_shouldInsertTagsAsOneJdbcBatch() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<TagCreateDTO> dtos = IntStream.range(0, 20)
+                .mapToObj(i -> {
+                    TagCreateDTO dto = new TagCreateDTO();
+                    dto.setName("bulk-" + i);
+                    return dto;
+                })
+                .toList();
+
+        statistics.clear();
+        List<TagDTO> created = tagService.createBulk(dtos);
+
+        assertEquals(20, created.size());
+        assertEquals(20, statistics.getEntityInsertCount());
+        // проверка имен, один вызов последовательности на 50 id и один пакетный INSERT
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+
     @Test
     void getAllTags_shouldReturnListOfTags() throws Exception {
         // Arrange
@@ -76,6 +127,81 @@ class TagControllerTest {
                 .andExpect(jsonPath("$.name", is("spring-boot")));
     }
 
+    @Test
+    @WithMockUser
+    void batchCreate_shouldReportDuplicatesAndCreateTheRest() throws Exception {
+        tagRepository.save(generateTag("existing"));
+
+        String body = """
+                [{"name": "first"}, {"name": "existing"}, {"name": "first"}, {"name": ""}, {"name": "second"}]
+                """;
+        mockMvc.perform(post("/api/tags/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].status", contains("CREATED", "FAILED", "FAILED", "FAILED", "CREATED")))
+                .andExpect(jsonPath("$[0].tag.name", is("first")))
+                .andExpect(jsonPath("$[1].error", containsString("already exists")));
+
+        assertEquals(3, tagRepository.count());
+    }
+
+    @Test
+    @WithMockUser
+    void batchUpdateAndDelete_shouldApplyPerItem() throws Exception {
+        Tag java = tagRepository.save(generateTag("java"));
+        Tag kotlin = tagRepository.save(generateTag("kotlin"));
+
+        String updates = """
+                [{"id": %d, "name": "java-21"}, {"id": %d, "name": "java-21"}, {"id": -1, "name": "missing"}]
+                """.formatted(java.getId(), kotlin.getId());
+        mockMvc.perform(put("/api/tags/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updates))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].status", contains("UPDATED", "FAILED", "FAILED")));
+        assertEquals("java-21", tagRepository.findById(java.getId()).orElseThrow().getName());
+
+        mockMvc.perform(get("/api/tags/batch").param("ids", java.getId() + "," + kotlin.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("java-21", "kotlin")));
+
+        mockMvc.perform(delete("/api/tags/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + java.getId() + ", -1, " + kotlin.getId() + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].status", contains("DELETED", "FAILED", "DELETED")));
+        assertEquals(0, tagRepository.count());
+    }
+
+    @Test
+    void batchCreate_withoutAuthentication_shouldBeRejected() throws Exception {
+        mockMvc.perform(post("/api/tags/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"anonymous\"}]"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void updateTag_withoutAuthentication_shouldBeRejected() throws Exception {
+        Tag tag = tagRepository.save(generateTag("java"));
+
+        mockMvc.perform(put("/api/tags/{id}", tag.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpect(status().isUnauthorized());
+        assertEquals("java", tagRepository.findById(tag.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void batchGet_withTooManyIds_shouldReturnBadRequest() throws Exception {
+        String ids = IntStream.rangeClosed(1, TagService.MAX_BATCH_SIZE + 1)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/tags/batch").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createTag_withValidData_shouldCreateTag() throws Exception {
         // Arrange
@@ -112,6 +238,7 @@ class TagControllerTest {
     }
 
     @Test
+    @WithMockUser
     void deleteTag_withValidId_shouldDeleteTag() throws Exception {
         // Arrange
         Tag tag = generateTag("to-delete");
@@ -11,10 +11,15 @@ import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hexletspringblog.component.PostSlugIndex;
+import io.hexletspringblog.dto.PostCreateDTO;
+import io.hexletspringblog.model.Tag;
 import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.CommentRepository;
 import io.hexletspringblog.repository.PostRepository;
+import io.hexletspringblog.repository.TagRepository;
 import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.service.PostService;
 import org.instancio.Instancio;
 import org.instancio.Select;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,7 +33,9 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -51,11 +58,21 @@ class UserControllerTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PostSlugIndex postSlugIndex;
+
+    @Autowired
+    private PostService postService;
+
     @BeforeEach
     void setUp() {
         // Очищаем базу данных перед каждым тестом
         commentRepository.deleteAll();
         postRepository.deleteAll();
+        tagRepository.deleteAll();
         userRepository.deleteAll();
 
         om.registerModule(new JsonNullableModule());
@@ -71,6 +88,45 @@ class UserControllerTest {
         assertThatJson(body).isArray();
     }
 
+    @Test
+    void testIndexWithCursor() throws Exception {
+        User first = userRepository.save(generateUser());
+        User second = generateUser();
+        second.setEmail("second@example.com");
+        userRepository.save(second);
+
+        mockMvc.perform(get("/api/users").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(first.getId()));
+
+        mockMvc.perform(get("/api/users").param("afterId", first.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].email").value("second@example.com"));
+    }
+
+    @Test
+    void testIndexWithSizeOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/users").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users").param("size", "100000000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExport() throws Exception {
+        userRepository.save(generateUser());
+
+        var result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        var lines = result.getResponse().getContentAsString().lines().toList();
+        assertThat(lines).hasSize(1);
+        assertThatJson(lines.get(0)).node("passwordDigest").isAbsent();
+    }
+
     @Test
     void testShow() throws Exception {
 
@@ -143,6 +199,36 @@ class UserControllerTest {
         return user;
     }
 
+    @Test
+    void testDeleteUser_removesPostsAndAdjustsTagCounts() throws Exception {
+        User user = generateUser();
+        user.setPosts(new ArrayList<>());
+        userRepository.save(user);
+
+        Tag tag = new Tag();
+        tag.setName("deleted-author-tag");
+        tagRepository.save(tag);
+        for (String slug : List.of("deleted-author-1", "deleted-author-2")) {
+            PostCreateDTO dto = new PostCreateDTO();
+            dto.setAuthorId(user.getId());
+            dto.setSlug(slug);
+            dto.setTitle("Title " + slug);
+            dto.setContent("Content of " + slug);
+            dto.setTagIds(List.of(tag.getId()));
+            postService.create(dto);
+        }
+        assertThat(tagRepository.findById(tag.getId()).orElseThrow().getPostCount()).isEqualTo(2);
+
+        mockMvc.perform(delete("/api/users/" + user.getId()))
+                .andExpect(status().isNoContent());
+
+        assertThat(userRepository.existsById(user.getId())).isFalse();
+        assertThat(postRepository.count()).isZero();
+        assertThat(tagRepository.findById(tag.getId()).orElseThrow().getPostCount()).isZero();
+        // Индексы и кэши получили PostChangedEvent по каждому посту
+        assertThat(postSlugIndex.findId("deleted-author-1")).isEmpty();
+    }
+
     // Обновите generateUser для использования в тестах, где сохраняете через репозиторий
     private User generateUser() {
         return Instancio.of(User.class)
@@ -0,0 +1,74 @@
+package io.hexletspringblog.search;
+
+import io.hexletspringblog.event.PostChangedEvent;
+import io.hexletspringblog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchIndexListenerTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private PostSearchIndex index;
+    private PostSearchIndexListener listener;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex();
+        listener = new PostSearchIndexListener(index, postRepository);
+    }
+
+    @Test
+    void rebuild_ShouldKeepEventsArrivingWhileStreaming() {
+        // Пост 2 создан после того, как выборка его уже пропустила
+        when(postRepository.streamSearchDocumentsBy()).thenReturn(Stream.of(document(1L, "Spring basics"))
+                .peek(document -> listener.onPostChanged(new PostChangedEvent(
+                        PostChangedEvent.Type.CREATED, 2L, "kotlin", "Kotlin coroutines", ""))));
+
+        listener.rebuild();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.search("kotlin")).containsExactly(2L);
+        assertThat(index.search("spring")).containsExactly(1L);
+    }
+
+    @Test
+    void rebuild_ShouldReplaceStaleEntries() {
+        index.put(5L, "Removed post", "");
+        when(postRepository.streamSearchDocumentsBy()).thenReturn(Stream.of(document(1L, "Spring basics")));
+
+        listener.rebuild();
+
+        assertThat(index.search("removed")).isEmpty();
+        assertThat(index.search("spring")).containsExactly(1L);
+    }
+
+    private static PostSearchDocument document(Long id, String title) {
+        return new PostSearchDocument() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return title;
+            }
+
+            @Override
+            public String getContent() {
+                return "";
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package io.hexletspringblog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostSearchIndexTest {
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex();
+        index.put(1L, "Spring Boot basics", "Getting started with Spring and Java");
+        index.put(2L, "Java streams", "Collectors, streams and lambdas in Java");
+        index.put(3L, "Cooking pasta", "Boil water, add salt");
+    }
+
+    @Test
+    void search_ShouldRankByRelevance() {
+        List<Long> result = index.search("java streams");
+
+        assertThat(result).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndPunctuation() {
+        assertThat(index.search("SPRING!")).containsExactly(1L);
+        assertThat(index.search("   ")).isEmpty();
+    }
+
+    @Test
+    void findMatchingIds_ShouldRequireAllTerms() {
+        assertThat(index.findMatchingIds("java spring")).containsExactly(1L);
+        assertThat(index.findMatchingIds("java pasta")).isEmpty();
+    }
+
+    @Test
+    void put_ShouldReplaceExistingDocument() {
+        index.put(3L, "Java pasta", "Boil water");
+
+        assertThat(index.search("cooking")).isEmpty();
+        assertThat(index.findMatchingIds("java")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void remove_ShouldDropDocumentFromPostings() {
+        index.remove(2L);
+
+        assertThat(index.search("streams")).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
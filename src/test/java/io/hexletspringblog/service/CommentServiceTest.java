@@ -1,5 +1,6 @@
 package io.hexletspringblog.service;
 
+import io.hexletspringblog.component.EntityCacheEvictor;
 import io.hexletspringblog.dto.CommentDTO;
 import io.hexletspringblog.dto.CommentUpdateDTO;
 import io.hexletspringblog.exception.ResourceNotFoundException;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -36,6 +38,9 @@ class CommentServiceTest {
     @Mock
     private CommentMapper commentMapper;
 
+    @Mock
+    private EntityCacheEvictor cacheEvictor;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -73,12 +78,13 @@ class CommentServiceTest {
         commentDTO2.setBody("Another comment");
         commentDTO2.setPostId(1L);
 
-        when(commentRepository.findAll()).thenReturn(Arrays.asList(testComment, comment2));
+        when(commentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(20)))
+                .thenReturn(Arrays.asList(testComment, comment2));
         when(commentMapper.toDTO(testComment)).thenReturn(testCommentDTO);
         when(commentMapper.toDTO(comment2)).thenReturn(commentDTO2);
 
         // Act
-        List<CommentDTO> result = commentService.findAll();
+        List<CommentDTO> result = commentService.findAll(null, 20);
 
         // Assert
         assertThat(result).hasSize(2);
@@ -293,12 +299,13 @@ class CommentServiceTest {
         commentDTO2.setPostId(1L);
 
         when(postRepository.existsById(1L)).thenReturn(true);
-        when(commentRepository.findAll()).thenReturn(Arrays.asList(testComment, comment2));
+        when(commentRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.of(20)))
+                .thenReturn(Arrays.asList(testComment, comment2));
         when(commentMapper.toDTO(testComment)).thenReturn(testCommentDTO);
         when(commentMapper.toDTO(comment2)).thenReturn(commentDTO2);
 
         // Act
-        List<CommentDTO> result = commentService.findByPostId(1L);
+        List<CommentDTO> result = commentService.findByPostId(1L, null, 20);
 
         // Assert
         assertThat(result).hasSize(2);
@@ -311,7 +318,7 @@ class CommentServiceTest {
         when(postRepository.existsById(999L)).thenReturn(false);
 
         // Act & Assert
-        assertThatThrownBy(() -> commentService.findByPostId(999L))
+        assertThatThrownBy(() -> commentService.findByPostId(999L, null, 20))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage("Post not found with id: 999");
     }
@@ -4,12 +4,17 @@ import io.hexletspringblog.dto.PostCreateDTO;
 import io.hexletspringblog.dto.PostDTO;
 import io.hexletspringblog.dto.PostParamsDTO;
 import io.hexletspringblog.dto.PostUpdateDTO;
+import io.hexletspringblog.exception.BadRequestException;
+import io.hexletspringblog.model.Comment;
 import io.hexletspringblog.model.Post;
 import io.hexletspringblog.model.Tag;
 import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.PostRepository;
 import io.hexletspringblog.repository.TagRepository;
 import io.hexletspringblog.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +26,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,6 +50,9 @@ class PostServiceIntegrationTest {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User testUser;
     private Tag testTag;
     private Post testPost;
@@ -90,6 +99,98 @@ class PostServiceIntegrationTest {
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Test Post");
     }
 
+    @Test
+    void findAll_ShouldLoadPageInConstantNumberOfStatements() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("Content " + i);
+            post.setSlug("post-" + i);
+            post.setAuthor(testUser);
+            post.getTags().add(testTag);
+            Comment comment = new Comment();
+            comment.setBody("Comment " + i);
+            post.addComment(comment);
+            postRepository.save(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        // Act
+        Page<PostDTO> result = postService.findAll(new PostParamsDTO(), PageRequest.of(0, 10));
+
+        // Assert: select + count + один батч тегов + один батч комментариев
+        assertThat(result.getContent()).hasSize(10);
+        assertThat(result.getContent()).allSatisfy(post -> assertThat(post.getTags()).hasSize(1));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void findAll_WithFilters_ShouldApplyEachPredicate() {
+        // Arrange
+        Tag springTag = new Tag();
+        springTag.setName("Spring");
+        springTag = tagRepository.save(springTag);
+
+        Post draft = new Post();
+        draft.setTitle("Draft about Spring");
+        draft.setContent("Draft content");
+        draft.setSlug("draft-post");
+        draft.setPublished(false);
+        draft.setAuthor(testUser);
+        draft.getTags().add(testTag);
+        draft.getTags().add(springTag);
+        postRepository.save(draft);
+
+        Pageable pageable = PageRequest.of(0, 10);
+        LocalDate today = LocalDate.now();
+
+        // Act & Assert
+        PostParamsDTO published = new PostParamsDTO();
+        published.setPublished(true);
+        assertThat(postService.findAll(published, pageable).getContent())
+                .extracting(PostDTO::getSlug).containsExactly("test-post");
+
+        PostParamsDTO prefix = new PostParamsDTO();
+        prefix.setTitleStartsWith("Draft");
+        assertThat(postService.findAll(prefix, pageable).getContent())
+                .extracting(PostDTO::getSlug).containsExactly("draft-post");
+
+        PostParamsDTO anyTag = new PostParamsDTO();
+        anyTag.setTags(List.of(testTag.getId(), springTag.getId()));
+        assertThat(postService.findAll(anyTag, pageable).getContent()).hasSize(2);
+
+        PostParamsDTO allTags = new PostParamsDTO();
+        allTags.setTags(List.of(testTag.getId(), springTag.getId()));
+        allTags.setMatch("all");
+        assertThat(postService.findAll(allTags, pageable).getContent())
+                .extracting(PostDTO::getSlug).containsExactly("draft-post");
+
+        PostParamsDTO range = new PostParamsDTO();
+        range.setCreatedAtGt(today.minusDays(1));
+        range.setCreatedAtLt(today.plusDays(1));
+        assertThat(postService.findAll(range, pageable).getContent()).hasSize(2);
+
+        PostParamsDTO future = new PostParamsDTO();
+        future.setCreatedAtGt(today);
+        assertThat(postService.findAll(future, pageable).getContent()).isEmpty();
+    }
+
+    @Test
+    void findAll_WithUnknownMatch_ShouldThrowBadRequest() {
+        PostParamsDTO params = new PostParamsDTO();
+        params.setTags(List.of(testTag.getId()));
+        params.setMatch("some");
+
+        assertThrows(BadRequestException.class, () -> postService.findAll(params, PageRequest.of(0, 10)));
+    }
+
     @Test
     void findById_WhenPostExists_ShouldReturnPost() {
         // Act
@@ -181,7 +282,30 @@ class PostServiceIntegrationTest {
         // Verify in database
         Post updatedPost = postRepository.findById(testPost.getId()).orElseThrow();
         assertThat(updatedPost.getTags()).hasSize(1);
-        assertThat(updatedPost.getTags().get(0).getName()).isEqualTo("Spring");
+        assertThat(updatedPost.getTags()).extracting(Tag::getName).containsExactly("Spring");
+    }
+
+    @Test
+    void update_WithUnchangedTags_ShouldNotRewriteJoinRows() {
+        // Arrange
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        PostUpdateDTO updateDTO = new PostUpdateDTO();
+        updateDTO.setTagIds(org.openapitools.jackson.nullable.JsonNullable.of(List.of(testTag.getId())));
+
+        // Act
+        postService.update(testPost.getId(), updateDTO);
+        entityManager.flush();
+
+        // Assert: пост, его теги, теги по id и комментарии для DTO - без DELETE/INSERT в post_tag
+        assertThat(statistics.getCollectionRecreateCount()).isZero();
+        assertThat(statistics.getCollectionUpdateCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
     }
 
     @Test
@@ -1,5 +1,6 @@
 package io.hexletspringblog.service;
 
+import io.hexletspringblog.component.PostSlugIndex;
 import io.hexletspringblog.dto.PostCreateDTO;
 import io.hexletspringblog.dto.PostDTO;
 import io.hexletspringblog.dto.PostParamsDTO;
@@ -12,6 +13,7 @@ import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.PostRepository;
 import io.hexletspringblog.repository.TagRepository;
 import io.hexletspringblog.repository.UserRepository;
+import io.hexletspringblog.search.PostSearchIndex;
 import io.hexletspringblog.specification.PostSpecification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -53,6 +56,15 @@ class PostServiceTest {
     @Mock
     private PostSpecification postSpecification;
 
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PostSlugIndex postSlugIndex;
+
     @InjectMocks
     private PostService postService;
 
@@ -143,7 +155,7 @@ class PostServiceTest {
     @Test
     void findById_WhenPostExists_ShouldReturnPost() {
         // Arrange
-        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
+        when(postRepository.findDetailById(1L)).thenReturn(Optional.of(testPost));
         when(postMapper.toDTO(testPost)).thenReturn(testPostDTO);
 
         // Act
@@ -153,20 +165,20 @@ class PostServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getTitle()).isEqualTo("Test Post");
-        verify(postRepository).findById(1L);
+        verify(postRepository).findDetailById(1L);
     }
 
     @Test
     void findById_WhenPostNotExists_ShouldThrowException() {
         // Arrange
-        when(postRepository.findById(999L)).thenReturn(Optional.empty());
+        when(postRepository.findDetailById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> postService.findById(999L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage("Post not found with id: 999");
 
-        verify(postRepository).findById(999L);
+        verify(postRepository).findDetailById(999L);
     }
 
     @Test
@@ -222,6 +234,18 @@ class PostServiceTest {
         verify(postRepository).save(newPost);
     }
 
+    @Test
+    void resolveSlug_ShouldPickSuffixAfterLargestTakenOne() {
+        // Arrange
+        when(postRepository.findSlugsLike("new_post", "new\\_post-%"))
+                .thenReturn(List.of("new_post", "new_post-2", "new_post-7", "new_post-draft"));
+        when(postRepository.findSlugsLike("free", "free-%")).thenReturn(List.of("free-2"));
+
+        // Act & Assert
+        assertThat(postService.resolveSlug("new_post")).isEqualTo("new_post-8");
+        assertThat(postService.resolveSlug("free")).isEqualTo("free");
+    }
+
     @Test
     void create_WithNonExistentUser_ShouldThrowException() {
         // Arrange
@@ -1,6 +1,7 @@
 package io.hexletspringblog.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hexletspringblog.component.PostResponseCache;
 import io.hexletspringblog.dto.*;
 import io.hexletspringblog.model.Post;
 import io.hexletspringblog.model.Tag;
@@ -8,13 +9,18 @@ import io.hexletspringblog.model.User;
 import io.hexletspringblog.repository.PostRepository;
 import io.hexletspringblog.repository.TagRepository;
 import io.hexletspringblog.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openapitools.jackson.nullable.JsonNullable;
 import org.openapitools.jackson.nullable.JsonNullableModule;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -46,6 +52,15 @@ class TagPostIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PostResponseCache postResponseCache;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private User testUser;
     private Tag javaTag;
     private Tag springTag;
@@ -57,6 +72,7 @@ class TagPostIntegrationTest {
         postRepository.deleteAll();
         tagRepository.deleteAll();
         userRepository.deleteAll();
+        postResponseCache.evictAll();
 
         objectMapper.registerModule(new JsonNullableModule());
 
@@ -161,6 +177,7 @@ class TagPostIntegrationTest {
     }
 
     @Test
+    @WithMockUser
     void deleteUnusedTag_shouldSucceed() throws Exception {
         // Arrange - Create a tag that is not used by any post
         Tag unusedTag = new Tag();
@@ -175,6 +192,39 @@ class TagPostIntegrationTest {
         assertFalse(tagRepository.existsById(unusedTag.getId()));
     }
 
+    @Test
+    @WithMockUser
+    void deleteUsedTag_shouldFailWithoutForce() throws Exception {
+        mockMvc.perform(delete("/api/tags/{id}", javaTag.getId()))
+                .andExpect(status().isInternalServerError());
+
+        assertTrue(tagRepository.existsById(javaTag.getId()));
+    }
+
+    @Test
+    @WithMockUser
+    void forceDeleteUsedTag_shouldDetachWithoutLoadingPosts() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(delete("/api/tags/{id}", javaTag.getId()).param("force", "true"))
+                .andExpect(status().isNoContent());
+
+        assertEquals(0, statistics.getEntityStatistics(Post.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+        assertFalse(tagRepository.existsById(javaTag.getId()));
+        Post post = postRepository.findByIdWithTags(postWithTags.getId()).orElseThrow();
+        assertEquals(List.of("spring"), post.getTags().stream().map(Tag::getName).toList());
+    }
+
+    @Test
+    void forceDeleteTag_shouldRequireAuthentication() throws Exception {
+        mockMvc.perform(delete("/api/tags/{id}", javaTag.getId()).param("force", "true"))
+                .andExpect(status().isUnauthorized());
+
+        assertTrue(tagRepository.existsById(javaTag.getId()));
+    }
+
     @Test
     void getTagById_shouldReturnTag() throws Exception {
         // Act & Assert
@@ -222,4 +272,48 @@ class TagPostIntegrationTest {
                 .andExpect(jsonPath("$.content[0].title", is("Test Post with Tags")))
                 .andExpect(jsonPath("$.content[0].tags[?(@.name == 'java')]").exists());
     }
+
+    @Test
+    void postCount_shouldFollowPostLifecycle() throws Exception {
+        PostCreateDTO first = new PostCreateDTO();
+        first.setTitle("First counted post");
+        first.setContent("Counted content");
+        first.setAuthorId(testUser.getId());
+        first.setSlug("first-counted-post");
+        first.setTagIds(List.of(javaTag.getId(), springTag.getId()));
+        PostDTO firstPost = postService.create(first);
+
+        PostCreateDTO second = new PostCreateDTO();
+        second.setTitle("Second counted post");
+        second.setContent("Counted content");
+        second.setAuthorId(testUser.getId());
+        second.setSlug("second-counted-post");
+        second.setTagIds(List.of(javaTag.getId()));
+        PostDTO secondPost = postService.create(second);
+
+        assertEquals(2, tagRepository.findById(javaTag.getId()).orElseThrow().getPostCount());
+        assertEquals(1, tagRepository.findById(springTag.getId()).orElseThrow().getPostCount());
+
+        mockMvc.perform(get("/api/tags/popular").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].name", is("java")))
+                .andExpect(jsonPath("$[0].postCount", is(2)))
+                .andExpect(jsonPath("$[1].name", is("spring")));
+
+        PostUpdateDTO update = new PostUpdateDTO();
+        update.setTagIds(JsonNullable.of(List.of(hibernateTag.getId())));
+        postService.update(firstPost.getId(), update);
+        postService.delete(secondPost.getId());
+
+        assertEquals(0, tagRepository.findById(javaTag.getId()).orElseThrow().getPostCount());
+        assertEquals(0, tagRepository.findById(springTag.getId()).orElseThrow().getPostCount());
+        assertEquals(1, tagRepository.findById(hibernateTag.getId()).orElseThrow().getPostCount());
+
+        mockMvc.perform(get("/api/tags/popular").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("hibernate")));
+        mockMvc.perform(get("/api/tags/popular").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
 }